@@ -32,6 +32,10 @@ public class ProviderExample {
         serviceMetaInfo.setServiceName(serviceName);
         serviceMetaInfo.setServiceHost(rpcConfig.getServerHost());
         serviceMetaInfo.setServicePort(rpcConfig.getServerPort());
+        serviceMetaInfo.setZone(rpcConfig.getZone());
+        serviceMetaInfo.setWeight(rpcConfig.getWeight());
+        serviceMetaInfo.setWarmup(rpcConfig.getWarmup());
+        serviceMetaInfo.setRegisterTime(System.currentTimeMillis());
         try {
             registry.register(serviceMetaInfo);
         } catch (Exception e) {
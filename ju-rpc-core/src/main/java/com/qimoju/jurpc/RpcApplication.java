@@ -16,6 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 public class RpcApplication {
     private static volatile RpcConfig rpcConfig;
 
+    /**
+     * 运行时（共享的 Vert.x 实例等）
+     */
+    private static volatile RpcRuntime rpcRuntime;
+
     /**
      * 框架初始化，支持传入自定义配置
      *
@@ -54,6 +59,11 @@ public class RpcApplication {
     public static void init(RpcConfig newRpcConfig) {
         rpcConfig = newRpcConfig;
         log.info("rpc init, config = {}", newRpcConfig.toString());
+        // 运行时初始化，需在注册中心之前，注册中心的后台任务依赖共享的 Vert.x 实例
+        if (rpcRuntime == null) {
+            rpcRuntime = new RpcRuntime(rpcConfig);
+        }
+        final RpcRuntime runtime = rpcRuntime;
         // 注册中心初始化
         RegistryConfig registryConfig = rpcConfig.getRegistryConfig();
         Registry registry = RegistryFactory.getInstance(registryConfig.getRegistry());
@@ -63,9 +73,11 @@ public class RpcApplication {
         //创建并注册 shutdown hook,在JVM退出时执行操作
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            // 关闭注册中心
+            // 先关闭注册中心（下线节点），避免消费者继续向本节点发送请求
             registry.destroy();
             log.info("registry destroy");
+            // 再关闭服务器、客户端连接和 Vert.x
+            runtime.shutdown();
         }));
     }
 
@@ -94,4 +106,16 @@ public class RpcApplication {
         // 返回 RpcConfig 实例
         return rpcConfig;
     }
+
+    /**
+     * 获取运行时实例，未初始化时先初始化框架
+     *
+     * @return RpcRuntime 实例
+     */
+    public static RpcRuntime getRpcRuntime() {
+        if (rpcRuntime == null) {
+            getRpcConfig();
+        }
+        return rpcRuntime;
+    }
 }
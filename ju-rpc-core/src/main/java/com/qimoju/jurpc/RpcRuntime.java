@@ -0,0 +1,114 @@
+package com.qimoju.jurpc;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.qimoju.jurpc.config.RpcConfig;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RPC 框架运行时
+ * 持有进程内唯一的 Vert.x 实例（event loop 和 worker 线程池），由服务端、客户端和注册中心后台任务共享，
+ * 以及用于调用超时的时间轮定时器，并负责按顺序关闭这些组件
+ */
+@Slf4j
+public class RpcRuntime {
+
+    /**
+     * 关闭 Vert.x 的最长等待时间（秒）
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * 时间轮刻度（毫秒），调用超时的精度
+     */
+    private static final long TIMER_TICK_MILLIS = 10;
+
+    private final Vertx vertx;
+
+    /**
+     * 时间轮定时器，每个调用的超时任务只是放入时间轮的一个槽位，不占用线程，也不创建 Vert.x 定时器
+     */
+    private final HashedWheelTimer timer = new HashedWheelTimer(
+            new NamedThreadFactory("ju-rpc-timer-", true), TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+    /**
+     * 关闭时需要执行的操作（如关闭服务器、客户端连接），按注册顺序的逆序执行
+     */
+    private final List<Runnable> shutdownHooks = new ArrayList<>();
+
+    public RpcRuntime(RpcConfig rpcConfig) {
+        VertxOptions vertxOptions = new VertxOptions()
+                .setEventLoopPoolSize(rpcConfig.getEventLoopPoolSize())
+                .setWorkerPoolSize(rpcConfig.getWorkerPoolSize())
+                .setBlockedThreadCheckInterval(rpcConfig.getBlockedThreadCheckInterval())
+                .setBlockedThreadCheckIntervalUnit(TimeUnit.MILLISECONDS)
+                .setMaxEventLoopExecuteTime(rpcConfig.getMaxEventLoopExecuteTime())
+                .setMaxEventLoopExecuteTimeUnit(TimeUnit.MILLISECONDS)
+                .setMaxWorkerExecuteTime(rpcConfig.getMaxWorkerExecuteTime())
+                .setMaxWorkerExecuteTimeUnit(TimeUnit.MILLISECONDS);
+        this.vertx = Vertx.vertx(vertxOptions);
+        log.info("rpc runtime init, eventLoopPoolSize = {}, workerPoolSize = {}",
+                vertxOptions.getEventLoopPoolSize(), vertxOptions.getWorkerPoolSize());
+    }
+
+    /**
+     * 获取共享的 Vert.x 实例
+     *
+     * @return
+     */
+    public Vertx getVertx() {
+        return vertx;
+    }
+
+    /**
+     * 获取时间轮定时器（用于调用超时）
+     *
+     * @return
+     */
+    public Timer getTimer() {
+        return timer;
+    }
+
+    /**
+     * 注册关闭时执行的操作
+     *
+     * @param hook
+     */
+    public synchronized void addShutdownHook(Runnable hook) {
+        shutdownHooks.add(hook);
+    }
+
+    /**
+     * 关闭运行时
+     * 先逆序执行注册的关闭操作（服务器、客户端连接等），最后关闭 Vert.x 实例
+     */
+    public void shutdown() {
+        List<Runnable> hooks;
+        synchronized (this) {
+            hooks = new ArrayList<>(shutdownHooks);
+            shutdownHooks.clear();
+        }
+        for (int i = hooks.size() - 1; i >= 0; i--) {
+            try {
+                hooks.get(i).run();
+            } catch (Exception e) {
+                log.error("执行关闭操作失败", e);
+            }
+        }
+        timer.stop();
+        // 关闭 Vert.x（event loop 和 worker 线程池）
+        try {
+            vertx.close().toCompletionStage().toCompletableFuture().get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("关闭 Vert.x 失败", e);
+        }
+        log.info("rpc runtime shutdown");
+    }
+}
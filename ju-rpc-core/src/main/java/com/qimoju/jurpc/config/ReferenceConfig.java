@@ -0,0 +1,17 @@
+package com.qimoju.jurpc.config;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 服务引用配置（消费端为单个服务接口单独指定的配置，未指定的项使用全局配置）
+ */
+@Data
+public class ReferenceConfig {
+    // 调用超时时间（毫秒），为空时使用全局配置
+    private Long timeout;
+    // 方法名 => 调用超时时间（毫秒），优先于服务的超时时间
+    private Map<String, Long> methodTimeouts = new HashMap<>();
+}
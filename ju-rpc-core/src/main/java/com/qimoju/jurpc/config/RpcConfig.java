@@ -1,10 +1,15 @@
 package com.qimoju.jurpc.config;
 
+import com.qimoju.jurpc.constant.RpcConstant;
 import com.qimoju.jurpc.fault.retry.RetryStrategyKeys;
 import com.qimoju.jurpc.fault.tolerant.TolerantStrategy;
 import com.qimoju.jurpc.fault.tolerant.TolerantStrategyKeys;
 import com.qimoju.jurpc.loadbalancer.LoadBalancerKeys;
+import com.qimoju.jurpc.proxy.ProxyKeys;
 import com.qimoju.jurpc.serializer.SerializerKeys;
+import com.qimoju.jurpc.server.executor.RejectPolicyKeys;
+import com.qimoju.jurpc.server.executor.RequestExecutorKeys;
+import io.vertx.core.VertxOptions;
 import lombok.Data;
 
 /**
@@ -20,14 +25,61 @@ public class RpcConfig {
     private String serverHost = "localhost";
     // 服务端端口
     private Integer serverPort = 8080;
+    // 服务节点权重（注册到注册中心，加权负载均衡按权重比例分配请求）
+    private Integer weight = RpcConstant.DEFAULT_WEIGHT;
+    // 服务节点预热时间（毫秒），新注册的节点在这段时间内逐步增加权重，0 表示不预热
+    private Long warmup = 60000L;
+    // 所在区域（机架、可用区），服务端注册到注册中心，消费端用于同区域优先路由；默认读取环境变量 RPC_ZONE
+    private String zone = System.getenv(RpcConstant.ZONE_ENV);
+    // 客户端到每个服务提供者地址（host:port）的 TCP 长连接数
+    private Integer connectionPoolSize = 1;
+    // 单条协议消息的消息体最大长度（字节），收到超过该长度的消息头时关闭连接（服务端、客户端共用）
+    private Integer maxBodyLength = 16 * 1024 * 1024;
+    // 调用超时时间（毫秒），0 表示不超时
+    private Long timeout = 3000L;
+    // Vert.x event loop 线程数（服务端、客户端共享）
+    private Integer eventLoopPoolSize = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    // Vert.x worker 线程池大小
+    private Integer workerPoolSize = VertxOptions.DEFAULT_WORKER_POOL_SIZE;
+    // 阻塞线程检查间隔（毫秒）
+    private Long blockedThreadCheckInterval = 1000L;
+    // event loop 单次执行的最长时间（毫秒），超过后打印线程阻塞警告
+    private Long maxEventLoopExecuteTime = 2000L;
+    // worker 单次执行的最长时间（毫秒），超过后打印线程阻塞警告
+    private Long maxWorkerExecuteTime = 60000L;
+    // 服务端请求执行器（服务方法在哪个线程上调用）
+    private String serverExecutor = RequestExecutorKeys.FIXED;
+    // 服务端业务线程池大小
+    private Integer serverExecutorPoolSize = 200;
+    // 服务端业务线程池等待队列长度
+    private Integer serverExecutorQueueSize = 1024;
+    // 服务端业务线程池满时的拒绝策略
+    private String serverExecutorRejectPolicy = RejectPolicyKeys.BUSY;
+    // 虚拟线程执行器同时执行的最大请求数
+    private Integer serverExecutorMaxConcurrency = 1000;
     // mock模拟调用策略
     private boolean mock = false;
+    // 服务代理生成方式
+    private String proxy = ProxyKeys.JDK;
     //序列化器配置
     private String serializer = SerializerKeys.JDK;
+    // Kryo 序列化器预先注册的类（只写类 id，不写完整类名），多个用逗号分隔；服务接口会展开为方法参数和返回值中可达的类。
+    // 默认为空即不注册；配置后服务端和消费端必须使用完全相同的列表，否则类 id 对不上
+    private String kryoRegistrationClasses = "";
     // 注册中心配置
     private RegistryConfig registryConfig = new RegistryConfig();
+    // 路由器配置（负载均衡之前筛选节点），多个用逗号分隔，按顺序执行，如 zone,subset；默认为空即不筛选
+    private String router = "";
+    // 同区域节点数低于每个区域平均节点数的该比例时，溢出到所有区域
+    private Double zoneSpilloverRatio = 0.5;
+    // 子集路由每个消费端使用的节点数
+    private Integer subsetSize = 10;
+    // 消费端标识（子集路由按它选择节点），为空时使用本机地址和进程号
+    private String clientId;
     // 负载均衡配置
     private String loadBalancer = LoadBalancerKeys.ROUND_ROBIN;
+    // 有界负载一致性哈希的负载上限系数（节点请求数不超过平均值的多少倍）
+    private Double boundedLoadFactor = 1.25;
     // 重试策略配置
     private String retryStrategy = RetryStrategyKeys.FIXED_INTERVAL;
     // 容错策略配置
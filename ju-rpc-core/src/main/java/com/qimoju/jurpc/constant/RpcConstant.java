@@ -13,4 +13,14 @@ public interface RpcConstant {
      * 默认服务版本
      */
     String DEFAULT_SERVICE_VERSION = "1.0";
+
+    /**
+     * 默认服务节点权重
+     */
+    int DEFAULT_WEIGHT = 100;
+
+    /**
+     * 未配置区域时读取的环境变量
+     */
+    String ZONE_ENV = "RPC_ZONE";
 }
@@ -1,12 +1,15 @@
 package com.qimoju.jurpc.fault.retry;
 
 import com.github.rholder.retry.*;
+import com.qimoju.jurpc.RpcApplication;
 import com.qimoju.jurpc.model.RpcResponse;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 固定时间间隔 - 重试策略
@@ -15,6 +18,21 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class FixedIntervalRetryStrategy implements RetryStrategy {
 
+    /**
+     * 重试间隔（秒）
+     */
+    private static final long WAIT_SECONDS = 3L;
+
+    /**
+     * 最大尝试次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 不限截止时间的重试器，配置固定，所有调用共用
+     */
+    private final Retryer<RpcResponse> retryer = newRetryer(0);
+
     /**
      * 执行重试操作
      *
@@ -27,14 +45,35 @@ public class FixedIntervalRetryStrategy implements RetryStrategy {
      * @throws RetryException 如果重试策略确定不应继续重试时抛出
      */
     public RpcResponse doRetry(Callable<RpcResponse> callable) throws ExecutionException, RetryException {
-        // 构建一个重试器，用于处理重试逻辑
-        Retryer<RpcResponse> retryer = RetryerBuilder.<RpcResponse>newBuilder()
+        // 使用重试器执行 Callable 任务，并返回结果
+        return retryer.call(callable);
+    }
+
+    /**
+     * 在截止时间之前重试，等待间隔后已超过截止时间时不再重试
+     *
+     * @param callable 一个 Callable 任务，执行可能需要重试的操作
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不限制
+     * @return RpcResponse 类型的结果，表示远程过程调用的响应
+     * @throws ExecutionException 如果在执行任务时或重试策略确定不应继续重试时抛出
+     * @throws RetryException 如果重试策略确定不应继续重试时抛出
+     */
+    @Override
+    public RpcResponse doRetry(Callable<RpcResponse> callable, long deadlineNanos) throws ExecutionException, RetryException {
+        if (deadlineNanos == 0) {
+            return doRetry(callable);
+        }
+        return newRetryer(deadlineNanos).call(callable);
+    }
+
+    private static Retryer<RpcResponse> newRetryer(long deadlineNanos) {
+        return RetryerBuilder.<RpcResponse>newBuilder()
                 // 当抛出 Exception 类型的异常时进行重试
                 .retryIfExceptionOfType(Exception.class)
                 // 设置重试间隔为固定时间，每次重试前等待3秒
-                .withWaitStrategy(WaitStrategies.fixedWait(3L, TimeUnit.SECONDS))
-                // 设置最大重试次数为3次
-                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withWaitStrategy(WaitStrategies.fixedWait(WAIT_SECONDS, TimeUnit.SECONDS))
+                // 最多尝试3次，且不在截止时间之后重试
+                .withStopStrategy(attempt -> attempt.getAttemptNumber() >= MAX_ATTEMPTS || isPastDeadline(deadlineNanos))
                 // 设置重试监听器，用于在每次重试时执行自定义逻辑
                 .withRetryListener(new RetryListener() {
                     @Override
@@ -45,9 +84,66 @@ public class FixedIntervalRetryStrategy implements RetryStrategy {
                 })
                 // 构建重试器
                 .build();
-        // 使用重试器执行 Callable 任务，并返回结果
-        return retryer.call(callable);
     }
 
-}
+    /**
+     * 等待重试间隔后是否已超过截止时间
+     *
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不限制
+     * @return
+     */
+    private static boolean isPastDeadline(long deadlineNanos) {
+        return deadlineNanos != 0 && System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS) - deadlineNanos >= 0;
+    }
 
+    /**
+     * 异步重试
+     * 失败后通过共享 Vert.x 实例的定时器等待固定间隔再发起下一次调用，等待期间不占用线程
+     *
+     * @param supplier 每次调用返回一个新的响应 future
+     * @return 最后一次调用的结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier) {
+        return doRetryAsync(supplier, 0);
+    }
+
+    /**
+     * 在截止时间之前异步重试，等待间隔后已超过截止时间时不再重试
+     *
+     * @param supplier 每次调用返回一个新的响应 future
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不限制
+     * @return 最后一次调用的结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier, long deadlineNanos) {
+        CompletableFuture<RpcResponse> result = new CompletableFuture<>();
+        attempt(supplier, 1, deadlineNanos, result);
+        return result;
+    }
+
+    private void attempt(Supplier<CompletableFuture<RpcResponse>> supplier, int attemptNumber, long deadlineNanos,
+                         CompletableFuture<RpcResponse> result) {
+        CompletableFuture<RpcResponse> responseFuture;
+        try {
+            responseFuture = supplier.get();
+        } catch (Exception e) {
+            responseFuture = CompletableFuture.failedFuture(e);
+        }
+        responseFuture.whenComplete((response, e) -> {
+            if (e == null) {
+                result.complete(response);
+                return;
+            }
+            if (attemptNumber >= MAX_ATTEMPTS || isPastDeadline(deadlineNanos)) {
+                result.completeExceptionally(e);
+                return;
+            }
+            // 记录重试次数
+            log.info("重试次数 {}", attemptNumber);
+            RpcApplication.getRpcRuntime().getVertx().setTimer(TimeUnit.SECONDS.toMillis(WAIT_SECONDS),
+                    id -> attempt(supplier, attemptNumber + 1, deadlineNanos, result));
+        });
+    }
+
+}
@@ -3,6 +3,8 @@ package com.qimoju.jurpc.fault.retry;
 import com.qimoju.jurpc.model.RpcResponse;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * 重试策略
@@ -17,4 +19,40 @@ public interface RetryStrategy {
      * @throws Exception
      */
     RpcResponse doRetry(Callable<RpcResponse> callable) throws Exception;
+
+    /**
+     * 在整个调用的截止时间之前重试，等待重试间隔后已超过截止时间时不再重试
+     * 默认忽略截止时间（不等待间隔的策略不会在截止时间之后空等）
+     *
+     * @param callable
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不限制
+     * @return
+     * @throws Exception
+     */
+    default RpcResponse doRetry(Callable<RpcResponse> callable, long deadlineNanos) throws Exception {
+        return doRetry(callable);
+    }
+
+    /**
+     * 异步重试，重试等待期间不阻塞调用线程
+     * 默认不重试，只执行一次
+     *
+     * @param supplier 每次调用返回一个新的响应 future
+     * @return
+     */
+    default CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier) {
+        return supplier.get();
+    }
+
+    /**
+     * 在整个调用的截止时间之前异步重试
+     * 默认忽略截止时间
+     *
+     * @param supplier 每次调用返回一个新的响应 future
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不限制
+     * @return
+     */
+    default CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier, long deadlineNanos) {
+        return doRetryAsync(supplier);
+    }
 }
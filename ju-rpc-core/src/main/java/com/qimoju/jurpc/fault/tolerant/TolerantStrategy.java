@@ -3,6 +3,7 @@ package com.qimoju.jurpc.fault.tolerant;
 import com.qimoju.jurpc.model.RpcResponse;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 容错策略接口
@@ -18,5 +19,21 @@ public interface TolerantStrategy {
      * @return
      */
     RpcResponse doTolerant(Map<String, Object> context, Exception e);
+
+    /**
+     * 异步容错
+     * 默认直接复用同步容错的结果，容错过程中抛出的异常会使返回的 future 异常完成
+     *
+     * @param context 上下文，用于传递数据
+     * @param e       异常
+     * @return
+     */
+    default CompletableFuture<RpcResponse> doTolerantAsync(Map<String, Object> context, Exception e) {
+        try {
+            return CompletableFuture.completedFuture(doTolerant(context, e));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
 }
 
@@ -0,0 +1,53 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 两次随机选择（power of two choices）负载均衡器基类
+ * 随机取两个不同节点，按子类定义的负载比较，选择负载较低的一个，负载相同时选第一个。
+ * 每次选择只读取两个节点的统计，代价与节点数无关
+ */
+public abstract class AbstractPowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+
+    /**
+     * 节点统计（按服务缓存，与节点列表下标一一对应）
+     */
+    private final VersionedStateCache<ServiceNodeStats[]> statsCache = new VersionedStateCache<>(ServiceNodeStats::of);
+
+    @Override
+    public ServiceMetaInfo select(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        int size = serviceMetaInfoList.size();
+        if (size == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+
+        ServiceNodeStats[] serviceNodeStats = statsCache.get(serviceMetaInfoList);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // 在其余节点中选第二个，保证两个节点不同
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        long nowNanos = System.nanoTime();
+        double firstLoad = load(serviceNodeStats[first], nowNanos);
+        double secondLoad = load(serviceNodeStats[second], nowNanos);
+        return serviceMetaInfoList.get(firstLoad <= secondLoad ? first : second);
+    }
+
+    /**
+     * 节点负载，越小越好
+     *
+     * @param serviceNodeStats 节点统计
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return
+     */
+    protected abstract double load(ServiceNodeStats serviceNodeStats, long nowNanos);
+}
@@ -0,0 +1,107 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 有界负载一致性哈希负载均衡器（Consistent Hashing with Bounded Loads）
+ * 与一致性哈希一样按哈希键选择环上的节点，但每个节点正在处理的请求数不能超过平均值的 factor 倍；
+ * 节点已满时沿哈希环顺时针找下一个未满的节点，热点键不会把单个节点压垮，同时大部分请求仍保持亲和性
+ */
+public class ConsistentHashBoundedLoadBalancer implements LoadBalancer {
+
+    /**
+     * 一致性 Hash 环及节点统计（按服务缓存）
+     */
+    private final VersionedStateCache<BoundedHashRing> ringCache = new VersionedStateCache<>(BoundedHashRing::new);
+
+    /**
+     * 负载上限系数，节点的请求数上限为 ceil(平均请求数 * factor)
+     */
+    private final double loadFactor;
+
+    public ConsistentHashBoundedLoadBalancer() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public ConsistentHashBoundedLoadBalancer(RpcConfig rpcConfig) {
+        this(rpcConfig.getBoundedLoadFactor());
+    }
+
+    public ConsistentHashBoundedLoadBalancer(double loadFactor) {
+        if (loadFactor < 1) {
+            throw new IllegalArgumentException("负载上限系数不能小于 1");
+        }
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    public ServiceMetaInfo select(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        int size = serviceMetaInfoList.size();
+        if (size == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+
+        BoundedHashRing boundedHashRing = ringCache.get(serviceMetaInfoList);
+        ServiceNodeStats[] serviceNodeStats = boundedHashRing.serviceNodeStats;
+
+        // 计算每个节点的请求数上限（包括本次请求）
+        long totalActive = 1;
+        for (ServiceNodeStats stats : serviceNodeStats) {
+            totalActive += stats.getActive();
+        }
+        long capacity = (long) Math.ceil(totalActive * loadFactor / size);
+
+        // 从哈希键对应的位置开始，沿环找第一个未满的节点
+        ConsistentHashLoadBalancer.HashRing ring = boundedHashRing.ring;
+        long hash = ConsistentHashLoadBalancer.getHash(ConsistentHashLoadBalancer.getHashKey(requestParams));
+        int start = ring.indexOf(hash);
+        for (int i = 0; i < ring.size(); i++) {
+            int index = (start + i) % ring.size();
+            if (serviceNodeStats[boundedHashRing.nodeIndexes[index]].getActive() < capacity) {
+                return ring.nodeAt(index);
+            }
+        }
+        // 并发下所有节点都达到上限，退回普通一致性哈希
+        return ring.nodeAt(start);
+    }
+
+    /**
+     * 哈希环，以及每个虚拟节点对应的节点统计下标（构建后不再修改）
+     */
+    static class BoundedHashRing {
+
+        private final ConsistentHashLoadBalancer.HashRing ring;
+
+        /**
+         * 节点统计，与节点列表下标一一对应
+         */
+        private final ServiceNodeStats[] serviceNodeStats;
+
+        /**
+         * 虚拟节点下标 => 节点列表下标
+         */
+        private final int[] nodeIndexes;
+
+        BoundedHashRing(List<ServiceMetaInfo> serviceMetaInfoList) {
+            this.ring = new ConsistentHashLoadBalancer.HashRing(serviceMetaInfoList);
+            this.serviceNodeStats = ServiceNodeStats.of(serviceMetaInfoList);
+            Map<ServiceMetaInfo, Integer> indexMap = new IdentityHashMap<>();
+            for (int i = 0; i < serviceMetaInfoList.size(); i++) {
+                indexMap.put(serviceMetaInfoList.get(i), i);
+            }
+            this.nodeIndexes = new int[ring.size()];
+            for (int i = 0; i < nodeIndexes.length; i++) {
+                nodeIndexes[i] = indexMap.get(ring.nodeAt(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 一致性哈希键
+ * 标注在服务接口方法的参数上，使用一致性哈希负载均衡时按该参数的值选择节点，
+ * 相同参数值（如同一个用户 id）的调用总是落到同一个节点上，例如：
+ * <pre>
+ * User getUser(&#64;ConsistentHashKey Long userId);
+ * </pre>
+ * 未标注时按方法名选择节点。
+ * 参数值为字符串、数值、布尔值、字符时按其字符串形式，枚举按名称计算哈希；
+ * 其他类型按 hashCode 计算，参数类型必须重写 hashCode（创建代理时检查），
+ * 且只能由字符串、数值等跨进程不变的值计算（不能包含枚举或未重写 hashCode 的对象），
+ * 保证不同消费端对相同的值选择相同的节点
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ConsistentHashKey {
+}
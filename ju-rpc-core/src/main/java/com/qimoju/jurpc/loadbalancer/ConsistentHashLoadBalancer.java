@@ -1,27 +1,32 @@
 package com.qimoju.jurpc.loadbalancer;
 
+import cn.hutool.core.util.HashUtil;
 import com.qimoju.jurpc.model.ServiceMetaInfo;
 
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * 一致性哈希负载均衡器
- * 使用 TreeMap 实现一致性 Hash 环，该数据结构提供了 ceilingEntry 和 firstEntry 两个方法，便于获取符合算法要求的节点。
- * 每次调用负载均衡器时，都会重新构造 Hash 环，这是为了能够即时处理节点的变化
+ * 构建时使用 TreeMap 排序虚拟节点，之后用有序的 long 数组保存虚拟节点的哈希值，通过二分查找选择第一个大于等于请求哈希值的虚拟节点。
+ * 哈希环按服务节点快照的版本缓存，只在节点变化时重建；哈希函数使用 MurmurHash（64 位），分布比 hashCode 均匀。
+ * 请求的哈希键优先使用标注了 {@link ConsistentHashKey} 的参数值，没有时使用方法名
  */
 public class ConsistentHashLoadBalancer implements LoadBalancer {
 
     /**
-     * 一致性 Hash 环，存放虚拟节点
+     * 虚拟节点数
      */
-    private final TreeMap<Integer, ServiceMetaInfo> virtualNodes = new TreeMap<>();
+    private static final int VIRTUAL_NODE_NUM = 160;
 
     /**
-     * 虚拟节点数
+     * 一致性 Hash 环（按服务缓存）
      */
-    private static final int VIRTUAL_NODE_NUM = 100;
+    private final VersionedStateCache<HashRing> ringCache = new VersionedStateCache<>(HashRing::new);
 
     /**
      * 使用一致性哈希算法从服务元信息列表中选择一个服务
@@ -37,36 +42,147 @@ public class ConsistentHashLoadBalancer implements LoadBalancer {
         if (serviceMetaInfoList.isEmpty()) {
             return null;
         }
-
-        // 构建虚拟节点环
-        for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                int hash = getHash(serviceMetaInfo.getServiceAddress() + "#" + i);
-                virtualNodes.put(hash, serviceMetaInfo);
-            }
+        if (serviceMetaInfoList.size() == 1) {
+            return serviceMetaInfoList.get(0);
         }
+        return ringCache.get(serviceMetaInfoList).select(getHash(getHashKey(requestParams)));
+    }
 
-        // 获取调用请求的 hash 值
-        int hash = getHash(requestParams);
+    /**
+     * 获取请求的哈希键
+     * 字符串、数值、布尔值、字符使用字符串形式，枚举使用名称，其他对象使用 hashCode（见 {@link ConsistentHashKey}）；
+     * 不使用 toString，避免未重写 toString 的对象得到与内存地址相关、每个进程都不同的键
+     *
+     * @param requestParams
+     * @return
+     */
+    static String getHashKey(Map<String, Object> requestParams) {
+        Object hashKey = requestParams.get(LoadBalancerParamKeys.HASH_KEY);
+        if (hashKey == null) {
+            return String.valueOf(requestParams.get(LoadBalancerParamKeys.METHOD_NAME));
+        }
+        if (hashKey instanceof CharSequence || hashKey instanceof Number
+                || hashKey instanceof Boolean || hashKey instanceof Character) {
+            return hashKey.toString();
+        }
+        if (hashKey instanceof Enum) {
+            return ((Enum<?>) hashKey).name();
+        }
+        return Integer.toString(hashKey.hashCode());
+    }
 
-        // 选择最接近且大于等于调用请求 hash 值的虚拟节点
-        Map.Entry<Integer, ServiceMetaInfo> entry = virtualNodes.ceilingEntry(hash);
-        if (entry == null) {
-            // 如果没有大于等于调用请求 hash 值的虚拟节点，则返回环首部的节点
-            entry = virtualNodes.firstEntry();
+    /**
+     * 检查参数类型能否作为一致性哈希键：具体类必须重写 hashCode，否则相同的值在不同进程、不同对象上得到不同的键
+     * 接口、抽象类和 Object 类型的参数无法在声明处判断，按实际值处理
+     *
+     * @param type 标注了 {@link ConsistentHashKey} 的参数类型
+     * @throws IllegalArgumentException 参数类型为数组或没有重写 hashCode
+     */
+    public static void checkHashKeyType(Class<?> type) {
+        if (type.isArray()) {
+            throw new IllegalArgumentException("一致性哈希键不能是数组：" + type.getName());
+        }
+        if (type == Object.class || type.isPrimitive() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return;
+        }
+        if (getHashCodeDeclaringClass(type) == Object.class) {
+            throw new IllegalArgumentException("一致性哈希键的类型必须重写 hashCode：" + type.getName());
         }
-        return entry.getValue();
     }
 
+    private static Class<?> getHashCodeDeclaringClass(Class<?> type) {
+        try {
+            return type.getMethod("hashCode").getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return Object.class;
+        }
+    }
 
     /**
-     * Hash 算法，可自行实现
+     * Hash 算法（MurmurHash 64 位）
      *
      * @param key
      * @return
      */
-    private int getHash(Object key) {
-        return key.hashCode();
+    static long getHash(String key) {
+        return HashUtil.murmur64(key.getBytes(StandardCharsets.UTF_8));
     }
-}
 
+    /**
+     * 哈希环（构建后不再修改）
+     */
+    static class HashRing {
+
+        /**
+         * 虚拟节点的哈希值，升序
+         */
+        private final long[] hashes;
+
+        /**
+         * 与 hashes 一一对应的节点
+         */
+        private final ServiceMetaInfo[] nodes;
+
+        HashRing(List<ServiceMetaInfo> serviceMetaInfoList) {
+            TreeMap<Long, ServiceMetaInfo> virtualNodes = new TreeMap<>();
+            for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+                String nodeKey = serviceMetaInfo.getServiceNodeKey();
+                for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                    virtualNodes.put(getHash(nodeKey + "#" + i), serviceMetaInfo);
+                }
+            }
+            this.hashes = new long[virtualNodes.size()];
+            this.nodes = new ServiceMetaInfo[virtualNodes.size()];
+            int i = 0;
+            for (Map.Entry<Long, ServiceMetaInfo> entry : virtualNodes.entrySet()) {
+                hashes[i] = entry.getKey();
+                nodes[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        /**
+         * 选择最接近且大于等于哈希值的虚拟节点，没有时返回环首部的节点
+         *
+         * @param hash 请求的哈希值
+         * @return
+         */
+        ServiceMetaInfo select(long hash) {
+            return nodes[indexOf(hash)];
+        }
+
+        /**
+         * 哈希值在环上对应的虚拟节点下标
+         *
+         * @param hash
+         * @return
+         */
+        int indexOf(long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index == hashes.length ? 0 : index;
+        }
+
+        /**
+         * 虚拟节点数
+         *
+         * @return
+         */
+        int size() {
+            return hashes.length;
+        }
+
+        /**
+         * 下标对应的节点
+         *
+         * @param index
+         * @return
+         */
+        ServiceMetaInfo nodeAt(int index) {
+            return nodes[index];
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 最少活跃请求负载均衡器
+ * 选择正在处理的请求数最少的节点，请求数相同时随机选择；慢节点积压的请求多，自然分到的新请求少。
+ * 节点统计数组按节点快照缓存，每次选择只遍历一遍数组，不加锁
+ */
+public class LeastActiveLoadBalancer implements LoadBalancer {
+
+    /**
+     * 节点统计（按服务缓存，与节点列表下标一一对应）
+     */
+    private final VersionedStateCache<ServiceNodeStats[]> statsCache = new VersionedStateCache<>(ServiceNodeStats::of);
+
+    @Override
+    public ServiceMetaInfo select(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        int size = serviceMetaInfoList.size();
+        if (size == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+
+        ServiceNodeStats[] serviceNodeStats = statsCache.get(serviceMetaInfoList);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int leastActive = Integer.MAX_VALUE;
+        // 请求数最少的节点个数
+        int leastCount = 0;
+        int selectedIndex = 0;
+        for (int i = 0; i < size; i++) {
+            int active = serviceNodeStats[i].getActive();
+            if (active < leastActive) {
+                leastActive = active;
+                leastCount = 1;
+                selectedIndex = i;
+            } else if (active == leastActive) {
+                // 蓄水池抽样，在请求数最少的节点中等概率选择
+                leastCount++;
+                if (random.nextInt(leastCount) == 0) {
+                    selectedIndex = i;
+                }
+            }
+        }
+        return serviceMetaInfoList.get(selectedIndex);
+    }
+}
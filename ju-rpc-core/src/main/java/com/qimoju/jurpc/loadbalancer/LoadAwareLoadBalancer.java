@@ -0,0 +1,15 @@
+package com.qimoju.jurpc.loadbalancer;
+
+/**
+ * 服务端负载感知负载均衡器
+ * 根据服务端在响应中附带的负载报告（正在处理的请求数、排队数、CPU 使用率）计算节点负载，
+ * 随机取两个不同节点，选择负载较低的一个（power of two choices），把请求从过载的节点引开。
+ * 节点还没有报告或报告已过时（如长时间没有调用）时，按本端正在处理的请求数比较
+ */
+public class LoadAwareLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    @Override
+    protected double load(ServiceNodeStats serviceNodeStats, long nowNanos) {
+        return serviceNodeStats.getServerLoad(nowNanos);
+    }
+}
@@ -1,5 +1,6 @@
 package com.qimoju.jurpc.loadbalancer;
 
+import com.qimoju.jurpc.config.RpcConfig;
 import com.qimoju.jurpc.spi.SpiLoader;
 
 /**
@@ -27,5 +28,15 @@ public class LoadBalancerFactory {
         return SpiLoader.getInstance(LoadBalancer.class, key);
     }
 
+    /**
+     * 按配置获取负载均衡器，依赖配置的负载均衡器（如有界负载一致性哈希）按传入的配置创建，不读取全局配置
+     *
+     * @param rpcConfig
+     * @return
+     */
+    public static LoadBalancer getLoadBalancer(RpcConfig rpcConfig) {
+        return SpiLoader.getInstance(LoadBalancer.class, rpcConfig.getLoadBalancer(), rpcConfig);
+    }
+
 }
 
@@ -11,15 +11,45 @@ public interface LoadBalancerKeys {
      */
     String ROUND_ROBIN = "roundRobin";
 
+    /**
+     * 平滑加权轮询
+     */
+    String WEIGHTED_ROUND_ROBIN = "weightedRoundRobin";
+
     /**
      * 随机
      */
     String RANDOM = "random";
 
+    /**
+     * 两次随机选择（选正在处理的请求数较少的节点）
+     */
+    String POWER_OF_TWO_CHOICES = "p2c";
+
     /**
      * 一致性哈希
      */
     String CONSISTENT_HASH = "consistentHash";
 
+    /**
+     * 有界负载一致性哈希
+     */
+    String CONSISTENT_HASH_BOUNDED = "consistentHashBounded";
+
+    /**
+     * 最少活跃请求
+     */
+    String LEAST_ACTIVE = "leastActive";
+
+    /**
+     * Peak EWMA（响应时间 * 正在处理的请求数）
+     */
+    String PEAK_EWMA = "peakEwma";
+
+    /**
+     * 服务端负载感知（根据响应中附带的负载报告）
+     */
+    String LOAD_AWARE = "loadAware";
+
 }
 
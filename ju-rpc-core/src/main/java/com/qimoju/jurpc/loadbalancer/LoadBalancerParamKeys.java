@@ -0,0 +1,19 @@
+package com.qimoju.jurpc.loadbalancer;
+
+/**
+ * 负载均衡参数键名常量
+ *
+ */
+public interface LoadBalancerParamKeys {
+
+    /**
+     * 调用的方法名
+     */
+    String METHOD_NAME = "methodName";
+
+    /**
+     * 一致性哈希的键（标注了 {@link ConsistentHashKey} 的参数值）
+     */
+    String HASH_KEY = "hashKey";
+
+}
@@ -0,0 +1,14 @@
+package com.qimoju.jurpc.loadbalancer;
+
+/**
+ * Peak EWMA 负载均衡器
+ * 节点负载 = 响应时间的 Peak EWMA * (正在处理的请求数 + 1)，随机取两个不同节点，选择负载较低的一个（power of two choices）。
+ * 变慢的节点负载立即升高、很快少分请求；恢复后旧的响应时间随时间衰减，节点重新获得请求
+ */
+public class PeakEwmaLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    @Override
+    protected double load(ServiceNodeStats serviceNodeStats, long nowNanos) {
+        return serviceNodeStats.getPeakEwmaLoad(nowNanos);
+    }
+}
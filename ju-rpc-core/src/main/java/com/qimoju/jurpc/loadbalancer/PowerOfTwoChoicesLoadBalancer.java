@@ -0,0 +1,14 @@
+package com.qimoju.jurpc.loadbalancer;
+
+/**
+ * 两次随机选择（power of two choices）负载均衡器
+ * 随机取两个不同节点，选择正在处理的请求数较少的一个，请求数相同时选第一个。
+ * 每次选择只读取两个节点的统计，代价与节点数无关，效果接近最少活跃请求
+ */
+public class PowerOfTwoChoicesLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    @Override
+    protected double load(ServiceNodeStats serviceNodeStats, long nowNanos) {
+        return serviceNodeStats.getActive();
+    }
+}
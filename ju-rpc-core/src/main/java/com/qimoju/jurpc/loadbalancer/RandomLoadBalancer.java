@@ -4,17 +4,15 @@ import com.qimoju.jurpc.model.ServiceMetaInfo;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 随机负载均衡器
- * Java 自带的 Random 类实现
+ * 使用 ThreadLocalRandom 实现，多线程并发选择时不竞争同一个随机数种子
  *
  */
 public class RandomLoadBalancer implements LoadBalancer {
 
-    private final Random random = new Random();
-
     /**
      * 重写 select 方法，用于从服务列表中选择一个服务
      * 此方法实现了服务的随机选择逻辑，当列表为空时返回 null，以简化调用方的处理逻辑
@@ -41,7 +39,7 @@ public class RandomLoadBalancer implements LoadBalancer {
 
         // 当服务列表有多个服务时，使用随机数选择一个服务返回
         // 这里使用随机选择是为了平衡负载，确保每个服务都有被选中的机会
-        return serviceMetaInfoList.get(random.nextInt(size));
+        return serviceMetaInfoList.get(ThreadLocalRandom.current().nextInt(size));
     }
 }
 
@@ -4,19 +4,20 @@ import com.qimoju.jurpc.model.ServiceMetaInfo;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 轮询负载均衡器
- * 使用 JUC 包的 AtomicInteger 实现原子计数器，防止并发冲突问题。
+ * 使用 JUC 包的 AtomicInteger 实现原子计数器，防止并发冲突问题；每个服务单独计数，互不影响轮询顺序。
  *
  */
 public class RoundRobinLoadBalancer implements LoadBalancer {
 
     /**
-     * 当前轮询的下标
+     * 服务键 => 当前轮询的下标
      */
-    private final AtomicInteger currentIndex = new AtomicInteger(0);
+    private final Map<String, AtomicInteger> currentIndexMap = new ConcurrentHashMap<>();
 
     /**
      * 选择服务的策略方法
@@ -38,8 +39,10 @@ public class RoundRobinLoadBalancer implements LoadBalancer {
         if (size == 1) {
             return serviceMetaInfoList.get(0);
         }
-        // 使用取模算法进行轮询
-        int index = currentIndex.getAndIncrement() % size;
+        // 使用取模算法进行轮询，计数溢出为负数后仍取非负下标
+        AtomicInteger currentIndex = currentIndexMap.computeIfAbsent(serviceMetaInfoList.get(0).getServiceKey(),
+                key -> new AtomicInteger(0));
+        int index = Math.floorMod(currentIndex.getAndIncrement(), size);
         return serviceMetaInfoList.get(index);
     }
 }
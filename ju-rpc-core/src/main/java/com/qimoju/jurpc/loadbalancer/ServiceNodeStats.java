@@ -0,0 +1,199 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServerLoadReport;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务节点调用统计（消费端）
+ * 由调用链路在每次向节点发送请求前后更新，供负载均衡器参考节点当前的负载：
+ * 正在处理的请求数，响应时间的 Peak EWMA（指数加权移动平均，遇到更慢的响应立即取峰值，之后随时间衰减），
+ * 以及服务端在响应中附带的最近一次负载报告
+ */
+public class ServiceNodeStats {
+
+    /**
+     * EWMA 衰减时间常数（纳秒），距离上次采样越久，旧的响应时间权重越低
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 还没有响应时间样本、但有正在处理的请求时的负载惩罚值（纳秒），让新节点先接收少量请求
+     */
+    private static final double PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 负载报告有效期（纳秒），超过后认为报告已过时，不再参考
+     */
+    private static final long LOAD_REPORT_TTL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 节点键 => 统计，节点下线时由注册中心服务缓存移除
+     */
+    private static final Map<String, ServiceNodeStats> STATS_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 正在处理（已发送、未收到响应）的请求数
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * 响应时间的 Peak EWMA（纳秒），0 表示还没有样本
+     */
+    private double ewmaNanos;
+
+    /**
+     * 上次更新 EWMA 的时间（System.nanoTime）
+     */
+    private long lastSampleNanos = System.nanoTime();
+
+    /**
+     * 最近一次收到的服务端负载报告
+     */
+    private volatile ServerLoadReport loadReport;
+
+    /**
+     * 收到负载报告的时间（System.nanoTime）
+     */
+    private volatile long loadReportNanos;
+
+    /**
+     * 获取节点的统计
+     *
+     * @param serviceMetaInfo
+     * @return
+     */
+    public static ServiceNodeStats of(ServiceMetaInfo serviceMetaInfo) {
+        return STATS_MAP.computeIfAbsent(serviceMetaInfo.getServiceNodeKey(), key -> new ServiceNodeStats());
+    }
+
+    /**
+     * 获取节点列表中每个节点的统计，与列表下标一一对应
+     * 负载均衡器可以配合 {@link VersionedStateCache} 按节点快照缓存，避免每次选择都按节点键查找
+     *
+     * @param serviceMetaInfoList
+     * @return
+     */
+    public static ServiceNodeStats[] of(List<ServiceMetaInfo> serviceMetaInfoList) {
+        ServiceNodeStats[] serviceNodeStats = new ServiceNodeStats[serviceMetaInfoList.size()];
+        for (int i = 0; i < serviceNodeStats.length; i++) {
+            serviceNodeStats[i] = of(serviceMetaInfoList.get(i));
+        }
+        return serviceNodeStats;
+    }
+
+    /**
+     * 移除节点的统计（节点下线时调用），避免已下线的节点一直占用内存。
+     * 节点下线会产生新的节点快照，按快照缓存统计的负载均衡器随之重建，不会继续使用移除的统计
+     *
+     * @param serviceNodeKey 节点键
+     */
+    public static void remove(String serviceNodeKey) {
+        STATS_MAP.remove(serviceNodeKey);
+    }
+
+    /**
+     * 开始一次请求
+     */
+    public void beginRequest() {
+        active.incrementAndGet();
+    }
+
+    /**
+     * 结束一次请求
+     *
+     * @param elapsedNanos 请求耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void endRequest(long elapsedNanos, boolean success) {
+        active.decrementAndGet();
+        // 失败的请求可能很快返回，不用它拉低响应时间
+        updateEwma(System.nanoTime(), elapsedNanos, !success);
+    }
+
+    /**
+     * Peak EWMA 负载：响应时间 EWMA * (正在处理的请求数 + 1)，越小越好
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return
+     */
+    public double getPeakEwmaLoad(long nowNanos) {
+        double cost = decayedEwma(nowNanos);
+        int currentActive = active.get();
+        if (cost == 0 && currentActive != 0) {
+            return PENALTY_NANOS + currentActive;
+        }
+        return cost * (currentActive + 1);
+    }
+
+    /**
+     * 记录服务端在响应中附带的负载报告
+     *
+     * @param loadReport 负载报告
+     */
+    public void updateLoadReport(ServerLoadReport loadReport) {
+        this.loadReportNanos = System.nanoTime();
+        this.loadReport = loadReport;
+    }
+
+    /**
+     * 服务端负载：(服务端正在处理的请求数 + 排队数 + 本端正在处理的请求数) * (1 + CPU 使用率)，越小越好。
+     * 本端的请求数用于反映上次报告之后新发出的请求；没有报告或报告已过时，只用本端正在处理的请求数
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return
+     */
+    public double getServerLoad(long nowNanos) {
+        int currentActive = active.get();
+        ServerLoadReport currentLoadReport = loadReport;
+        if (currentLoadReport == null || nowNanos - loadReportNanos > LOAD_REPORT_TTL_NANOS) {
+            return currentActive;
+        }
+        double load = currentLoadReport.getInFlight() + currentLoadReport.getQueueSize() + currentActive;
+        int cpuUsage = currentLoadReport.getCpuUsage();
+        return cpuUsage < 0 ? load : load * (100 + cpuUsage) / 100.0;
+    }
+
+    /**
+     * 正在处理的请求数
+     *
+     * @return
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * 记录一个响应时间样本
+     * 更慢的响应直接作为峰值；否则按距离上次采样的时间计算旧值的权重 w，新值 = 旧值 * w + 样本 * (1 - w)
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @param rttNanos 响应时间（纳秒）
+     * @param peakOnly 只记录峰值，不拉低 EWMA（失败的请求）
+     */
+    synchronized void updateEwma(long nowNanos, long rttNanos, boolean peakOnly) {
+        if (rttNanos > ewmaNanos) {
+            ewmaNanos = rttNanos;
+        } else if (peakOnly) {
+            // 不更新采样时间，读取时的衰减继续计算
+            return;
+        } else {
+            double weight = Math.exp(-Math.max(nowNanos - lastSampleNanos, 0) / DECAY_NANOS);
+            ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+        }
+        lastSampleNanos = nowNanos;
+    }
+
+    /**
+     * 按距离上次采样的时间衰减后的 EWMA，长时间没有样本的节点负载逐渐降低，重新获得请求
+     */
+    private synchronized double decayedEwma(long nowNanos) {
+        long elapsed = Math.max(nowNanos - lastSampleNanos, 0);
+        return ewmaNanos * Math.exp(-elapsed / DECAY_NANOS);
+    }
+}
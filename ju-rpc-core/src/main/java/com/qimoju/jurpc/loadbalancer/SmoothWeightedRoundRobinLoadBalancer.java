@@ -0,0 +1,107 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.utils.WeightUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 平滑加权轮询负载均衡器（与 Nginx 的 smooth weighted round-robin 相同）
+ * 每次选择时所有节点的当前权重加上各自的权重，选当前权重最大的节点，再将其当前权重减去总权重。
+ * 请求按权重比例分配，且同一节点的请求尽量分散，不会连续集中到权重大的节点。
+ * 轮询状态按服务键缓存，注册中心推送节点变化（包括权重变化）后按新的节点快照重建；
+ * 有节点处于预热期时，每次选择按 {@link WeightUtils#getEffectiveWeight} 重新计算有效权重
+ */
+public class SmoothWeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    /**
+     * 轮询状态（按服务缓存，与节点列表下标一一对应）
+     */
+    private final VersionedStateCache<WeightedRoundRobin> stateCache = new VersionedStateCache<>(WeightedRoundRobin::new);
+
+    @Override
+    public ServiceMetaInfo select(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        if (serviceMetaInfoList.size() == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+        return serviceMetaInfoList.get(stateCache.get(serviceMetaInfoList).next());
+    }
+
+    /**
+     * 一个服务的加权轮询状态
+     */
+    static class WeightedRoundRobin {
+
+        private final List<ServiceMetaInfo> serviceMetaInfoList;
+
+        private final int[] weights;
+
+        private final long[] currentWeights;
+
+        private long totalWeight;
+
+        /**
+         * 所有节点预热结束的时间（毫秒）
+         */
+        private final long warmupEndMillis;
+
+        /**
+         * 是否还有节点在预热，预热期间每次选择都重新计算有效权重
+         */
+        private boolean warming;
+
+        WeightedRoundRobin(List<ServiceMetaInfo> serviceMetaInfoList) {
+            this.serviceMetaInfoList = serviceMetaInfoList;
+            int size = serviceMetaInfoList.size();
+            this.weights = new int[size];
+            this.currentWeights = new long[size];
+            long warmupEnd = 0;
+            for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+                warmupEnd = Math.max(warmupEnd, WeightUtils.getWarmupEndMillis(serviceMetaInfo));
+            }
+            this.warmupEndMillis = warmupEnd;
+            updateWeights(System.currentTimeMillis());
+        }
+
+        /**
+         * 选出下一个节点的下标
+         *
+         * @return
+         */
+        synchronized int next() {
+            if (warming) {
+                updateWeights(System.currentTimeMillis());
+            }
+            int selectedIndex = 0;
+            for (int i = 0; i < weights.length; i++) {
+                currentWeights[i] += weights[i];
+                if (currentWeights[i] > currentWeights[selectedIndex]) {
+                    selectedIndex = i;
+                }
+            }
+            currentWeights[selectedIndex] -= totalWeight;
+            return selectedIndex;
+        }
+
+        private void updateWeights(long nowMillis) {
+            // 预热结束后按完整权重再计算一次，之后不再更新
+            warming = nowMillis < warmupEndMillis;
+            long total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = WeightUtils.getEffectiveWeight(serviceMetaInfoList.get(i), nowMillis);
+                total += weights[i];
+            }
+            // 所有节点权重都为 0 时退化为普通轮询
+            if (total == 0) {
+                Arrays.fill(weights, 1);
+                total = weights.length;
+            }
+            totalWeight = total;
+        }
+    }
+}
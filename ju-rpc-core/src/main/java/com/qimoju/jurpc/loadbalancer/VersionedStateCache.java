@@ -0,0 +1,65 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按服务节点快照版本缓存的负载均衡状态
+ * 负载均衡器根据节点列表构建的内部结构（如哈希环）按服务键缓存，只在快照版本变化时重建；
+ * 读取时不加锁，重建后整体替换（写时复制）。
+ * 节点列表不是 {@link ServiceSnapshot}（如自定义注册中心）时无法判断是否变化，每次都重新构建
+ *
+ * @param <S> 状态类型，构建后不应替换其中的节点结构；需要随调用变化的部分（如加权轮询的当前权重）由状态自行同步
+ */
+public class VersionedStateCache<S> {
+
+    /**
+     * 服务键 => 状态
+     */
+    private final Map<String, VersionedState<S>> stateMap = new ConcurrentHashMap<>();
+
+    private final Function<List<ServiceMetaInfo>, S> stateBuilder;
+
+    public VersionedStateCache(Function<List<ServiceMetaInfo>, S> stateBuilder) {
+        this.stateBuilder = stateBuilder;
+    }
+
+    /**
+     * 获取节点列表对应的状态
+     *
+     * @param serviceMetaInfoList 节点列表
+     * @return
+     */
+    public S get(List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (!(serviceMetaInfoList instanceof ServiceSnapshot)) {
+            return stateBuilder.apply(serviceMetaInfoList);
+        }
+        ServiceSnapshot serviceSnapshot = (ServiceSnapshot) serviceMetaInfoList;
+        VersionedState<S> versionedState = stateMap.get(serviceSnapshot.getServiceKey());
+        if (versionedState != null && versionedState.version == serviceSnapshot.getVersion()) {
+            return versionedState.state;
+        }
+        // 并发重建时结果相同，谁最后写入都可以；旧版本不会覆盖新版本
+        VersionedState<S> newState = new VersionedState<>(serviceSnapshot.getVersion(), stateBuilder.apply(serviceSnapshot));
+        stateMap.merge(serviceSnapshot.getServiceKey(), newState,
+                (oldValue, value) -> value.version >= oldValue.version ? value : oldValue);
+        return newState.state;
+    }
+
+    private static class VersionedState<S> {
+
+        private final long version;
+
+        private final S state;
+
+        private VersionedState(long version, S state) {
+            this.version = version;
+            this.state = state;
+        }
+    }
+}
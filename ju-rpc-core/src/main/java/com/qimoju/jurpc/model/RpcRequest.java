@@ -40,5 +40,20 @@ public class RpcRequest implements Serializable {
      * 参数值数组，表示方法调用时传递的具体参数值。
      */
     private Object[] args;
+
+    /**
+     * 剩余超时时间（毫秒），服务端从收到请求开始计算，超时后不再调用服务方法；0 表示不超时。
+     */
+    private long timeout;
+
+    /**
+     * 复制请求并设置剩余超时时间，每次发送使用各自的副本，不修改调用方持有的请求
+     *
+     * @param timeout 剩余超时时间（毫秒）
+     * @return 新的请求
+     */
+    public RpcRequest withTimeout(long timeout) {
+        return new RpcRequest(serviceName, methodName, serviceVersion, parameterTypes, args, timeout);
+    }
 }
 
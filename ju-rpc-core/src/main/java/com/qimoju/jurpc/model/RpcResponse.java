@@ -34,5 +34,10 @@ public class RpcResponse implements Serializable {
      * 异常，表示远程调用过程中发生的异常信息。
      */
     private Exception exception;
+
+    /**
+     * 服务端负载报告，消费端用于负载均衡。
+     */
+    private ServerLoadReport loadReport;
 }
 
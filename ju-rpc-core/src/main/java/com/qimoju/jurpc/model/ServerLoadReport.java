@@ -0,0 +1,32 @@
+package com.qimoju.jurpc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 服务端负载报告
+ * 服务端在每个响应中附带，消费端据此判断节点的繁忙程度，字段都是整数，编码开销很小
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServerLoadReport implements Serializable {
+
+    /**
+     * 服务端正在处理的请求数
+     */
+    private int inFlight;
+
+    /**
+     * 请求执行器中排队等待的请求数
+     */
+    private int queueSize;
+
+    /**
+     * 进程 CPU 使用率（0 ~ 100），无法获取时为 -1
+     */
+    private int cpuUsage;
+}
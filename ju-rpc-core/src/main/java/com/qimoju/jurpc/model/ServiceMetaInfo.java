@@ -1,6 +1,7 @@
 package com.qimoju.jurpc.model;
 
 import cn.hutool.core.util.StrUtil;
+import com.qimoju.jurpc.constant.RpcConstant;
 import lombok.Data;
 
 /**
@@ -18,6 +19,14 @@ public class ServiceMetaInfo {
     private Integer servicePort;
     // 服务分组(暂未实现)
     private String serviceGroup = "default";
+    // 服务所在区域（机架、可用区）
+    private String zone;
+    // 节点权重，加权负载均衡按权重比例分配请求
+    private Integer weight = RpcConstant.DEFAULT_WEIGHT;
+    // 注册时间（毫秒时间戳）
+    private Long registerTime;
+    // 预热时间（毫秒），注册后这段时间内权重从 1 线性增长到配置的权重
+    private Long warmup;
 
     /**
      * 获取服务的唯一键
@@ -35,13 +44,13 @@ public class ServiceMetaInfo {
     /**
      * 生成服务节点键
      *
-     * 服务节点键是用于唯一标识一个服务节点的字符串，它由服务键、服务版本和服务主机组成，
-     * 格式为：{服务键}:{服务版本}:{服务主机}这种格式便于在分布式系统中快速定位和识别特定的服务实例
+     * 服务节点键是用于唯一标识一个服务节点的字符串，它由服务键、服务主机和端口组成，
+     * 格式为：{服务键}/{服务主机}:{服务端口}，同一服务的所有节点键以"{服务键}/"为前缀，便于在注册中心按服务前缀查询和监听
      *
-     * @return 服务节点键，格式为{服务键}:{服务版本}:{服务主机}
+     * @return 服务节点键，格式为{服务键}/{服务主机}:{服务端口}
      */
     public String getServiceNodeKey(){
-        return String.format("%s:%s:%s", getServiceKey(), serviceVersion, serviceHost);
+        return String.format("%s/%s:%s", getServiceKey(), serviceHost, servicePort);
     }
 
     public String getServiceAddress(){
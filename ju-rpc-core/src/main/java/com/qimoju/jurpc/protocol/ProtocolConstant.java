@@ -12,6 +12,16 @@ public interface ProtocolConstant {
      */
     int MESSAGE_HEADER_LENGTH = 17;
 
+    /**
+     * 消息头中请求 id 字段的位置
+     */
+    int REQUEST_ID_OFFSET = 5;
+
+    /**
+     * 消息头中消息体长度字段的位置
+     */
+    int BODY_LENGTH_OFFSET = 13;
+
     /**
      * 协议魔数
      */
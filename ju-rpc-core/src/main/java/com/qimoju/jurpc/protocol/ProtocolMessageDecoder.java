@@ -4,9 +4,13 @@ import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
 import com.qimoju.jurpc.serializer.Serializer;
 import com.qimoju.jurpc.serializer.SerializerFactory;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.vertx.core.buffer.Buffer;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * 协议消息解码器
@@ -18,7 +22,8 @@ public class ProtocolMessageDecoder {
      *
      * 该方法用于将接收到的字节数据解码为ProtocolMessage对象它首先验证数据的魔数，
      * 然后读取数据的头部信息，根据头部信息读取相应长度的数据体，最后根据序列化类型
-     * 和消息类型，将数据体反序列化为相应的对象
+     * 和消息类型，将数据体反序列化为相应的对象。
+     * 序列化器通过输入流直接读取 buffer 中的消息体，不复制字节，因此 buffer 在方法返回前必须有效
      *
      * @param buffer 待解码的字节数据
      * @return 解码后的ProtocolMessage对象
@@ -37,10 +42,8 @@ public class ProtocolMessageDecoder {
         header.setSerializer(buffer.getByte(2));
         header.setType(buffer.getByte(3));
         header.setStatus(buffer.getByte(4));
-        header.setRequestId(buffer.getLong(5));
-        header.setBodyLength(buffer.getInt(13));
-        // 解决粘包问题，只读指定长度的数据
-        byte[] bodyBytes = buffer.getBytes(17, 17 + header.getBodyLength());
+        header.setRequestId(buffer.getLong(ProtocolConstant.REQUEST_ID_OFFSET));
+        header.setBodyLength(buffer.getInt(ProtocolConstant.BODY_LENGTH_OFFSET));
         // 解析消息体
         ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
         if (serializerEnum == null) {
@@ -51,18 +54,22 @@ public class ProtocolMessageDecoder {
         if (messageTypeEnum == null) {
             throw new RuntimeException("序列化消息的类型不存在");
         }
+        // 解决粘包问题，只读指定长度的数据（消息体的视图，不复制）
+        ByteBuf bodyByteBuf = BufferUtils.unwrap(buffer).slice(ProtocolConstant.MESSAGE_HEADER_LENGTH, header.getBodyLength());
         // 根据消息类型，将消息体反序列化为相应的对象
-        switch (messageTypeEnum) {
-            case REQUEST:
-                RpcRequest request = serializer.deserialize(bodyBytes, RpcRequest.class);
-                return new ProtocolMessage<>(header, request);
-            case RESPONSE:
-                RpcResponse response = serializer.deserialize(bodyBytes, RpcResponse.class);
-                return new ProtocolMessage<>(header, response);
-            case HEART_BEAT:
-            case OTHERS:
-            default:
-                throw new RuntimeException("暂不支持该消息类型");
+        try (InputStream bodyStream = new ByteBufInputStream(bodyByteBuf)) {
+            switch (messageTypeEnum) {
+                case REQUEST:
+                    RpcRequest request = serializer.deserialize(bodyStream, RpcRequest.class);
+                    return new ProtocolMessage<>(header, request);
+                case RESPONSE:
+                    RpcResponse response = serializer.deserialize(bodyStream, RpcResponse.class);
+                    return new ProtocolMessage<>(header, response);
+                case HEART_BEAT:
+                case OTHERS:
+                default:
+                    throw new RuntimeException("暂不支持该消息类型");
+            }
         }
     }
 
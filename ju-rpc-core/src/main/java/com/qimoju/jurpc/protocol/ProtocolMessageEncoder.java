@@ -2,12 +2,27 @@ package com.qimoju.jurpc.protocol;
 
 import com.qimoju.jurpc.serializer.Serializer;
 import com.qimoju.jurpc.serializer.SerializerFactory;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
 
 import java.io.IOException;
 
+/**
+ * 协议消息编码器
+ * 先写入消息头（消息体长度占位），序列化器直接把消息体写到消息头之后，最后回填消息体长度，
+ * 整个消息只分配一块缓冲区，不经过中间的字节数组
+ */
 public class ProtocolMessageEncoder {
 
+    /**
+     * 编码缓冲区的初始容量，不够时自动扩容
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
     /**
      * 编码
      *
@@ -19,26 +34,53 @@ public class ProtocolMessageEncoder {
         if (protocolMessage == null || protocolMessage.getHeader() == null) {
             return Buffer.buffer();
         }
-        ProtocolMessage.Header header = protocolMessage.getHeader();
-        // 依次向缓冲区写入字节
-        Buffer buffer = Buffer.buffer();
-        buffer.appendByte(header.getMagic());
-        buffer.appendByte(header.getVersion());
-        buffer.appendByte(header.getSerializer());
-        buffer.appendByte(header.getType());
-        buffer.appendByte(header.getStatus());
-        buffer.appendLong(header.getRequestId());
-        // 获取序列化器
-        ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
-        if (serializerEnum == null) {
-            throw new RuntimeException("序列化协议不存在");
+        return BufferUtils.wrap(encode(protocolMessage, Unpooled.buffer(INITIAL_CAPACITY)));
+    }
+
+    /**
+     * 编码到池化的直接内存缓冲区
+     * 调用方必须在写出完成后（如 write 的完成回调中）调用 release 归还缓冲区
+     *
+     * @param protocolMessage
+     * @return 池化缓冲区
+     * @throws IOException
+     */
+    public static ByteBuf encodePooled(ProtocolMessage<?> protocolMessage) throws IOException {
+        if (protocolMessage == null || protocolMessage.getHeader() == null) {
+            return Unpooled.EMPTY_BUFFER;
         }
-        Serializer serializer = SerializerFactory.getInstance(serializerEnum.getValue());
-        byte[] bodyBytes = serializer.serialize(protocolMessage.getBody());
-        // 写入 body 长度和数据
-        buffer.appendInt(bodyBytes.length);
-        buffer.appendBytes(bodyBytes);
-        return buffer;
+        return encode(protocolMessage, PooledByteBufAllocator.DEFAULT.directBuffer(INITIAL_CAPACITY));
     }
-}
 
+    /**
+     * 编码到指定的缓冲区，编码失败时释放缓冲区
+     */
+    private static ByteBuf encode(ProtocolMessage<?> protocolMessage, ByteBuf byteBuf) throws IOException {
+        try {
+            ProtocolMessage.Header header = protocolMessage.getHeader();
+            // 获取序列化器
+            ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
+            if (serializerEnum == null) {
+                throw new RuntimeException("序列化协议不存在");
+            }
+            Serializer serializer = SerializerFactory.getInstance(serializerEnum.getValue());
+            // 依次向缓冲区写入字节
+            byteBuf.writeByte(header.getMagic());
+            byteBuf.writeByte(header.getVersion());
+            byteBuf.writeByte(header.getSerializer());
+            byteBuf.writeByte(header.getType());
+            byteBuf.writeByte(header.getStatus());
+            byteBuf.writeLong(header.getRequestId());
+            // body 长度先占位，序列化后回填
+            byteBuf.writeInt(0);
+            try (ByteBufOutputStream bodyStream = new ByteBufOutputStream(byteBuf)) {
+                serializer.serialize(protocolMessage.getBody(), bodyStream);
+            }
+            byteBuf.setInt(ProtocolConstant.BODY_LENGTH_OFFSET, byteBuf.writerIndex() - ProtocolConstant.MESSAGE_HEADER_LENGTH);
+            return byteBuf;
+        } catch (IOException | RuntimeException e) {
+            byteBuf.release();
+            throw e;
+        }
+    }
+}
@@ -16,7 +16,8 @@ public enum ProtocolMessageSerializerEnum {
     JDK(0, "jdk"),
     JSON(1, "json"),
     KRYO(2, "kryo"),
-    HESSIAN(3, "hessian");
+    HESSIAN(3, "hessian"),
+    PROTOSTUFF(4, "protostuff");
 
     private final int key;
 
@@ -10,7 +10,8 @@ public enum ProtocolMessageStatusEnum {
 
     OK("ok", 20),
     BAD_REQUEST("badRequest", 40),
-    BAD_RESPONSE("badResponse", 50);
+    BAD_RESPONSE("badResponse", 50),
+    SERVER_BUSY("serverBusy", 53);
 
     private final String text;
 
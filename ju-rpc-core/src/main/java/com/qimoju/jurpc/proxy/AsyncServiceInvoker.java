@@ -0,0 +1,69 @@
+package com.qimoju.jurpc.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 异步调用句柄
+ * 用于以异步方式调用返回值为普通类型的服务方法，无需修改服务接口，例如：
+ * <pre>
+ * AsyncServiceInvoker&lt;UserService&gt; invoker = ServiceProxyFactory.getAsyncInvoker(UserService.class);
+ * CompletableFuture&lt;User&gt; future = invoker.call(userService -&gt; userService.getUser(user));
+ * </pre>
+ * 与 {@link ServiceProxyFactory#getProxy} 一样按配置选择 mock 或远程调用，并使用服务引用配置
+ *
+ * @param <T> 服务接口类型
+ */
+public class AsyncServiceInvoker<T> {
+
+    /**
+     * 记录当前线程在录制代理上调用的方法和参数
+     */
+    private static final ThreadLocal<Object[]> RECORDED_INVOCATION = new ThreadLocal<>();
+
+    /**
+     * 录制代理，只记录被调用的方法和参数，不发起请求
+     */
+    private final T recorder;
+
+    private final ProxyInvoker proxyInvoker;
+
+    /**
+     * @param serviceClass 服务接口
+     * @param proxyInvoker 调用处理（远程调用或 mock）
+     */
+    @SuppressWarnings("unchecked")
+    AsyncServiceInvoker(Class<T> serviceClass, ProxyInvoker proxyInvoker) {
+        this.proxyInvoker = proxyInvoker;
+        this.recorder = (T) Proxy.newProxyInstance(
+                serviceClass.getClassLoader(),
+                new Class<?>[]{serviceClass},
+                (proxy, method, args) -> {
+                    RECORDED_INVOCATION.set(new Object[]{method, args});
+                    return MockServiceProxy.getDefaultObject(method.getReturnType());
+                }
+        );
+    }
+
+    /**
+     * 异步调用服务方法
+     *
+     * @param function 在服务接口上调用一次方法，例如 {@code userService -> userService.getUser(user)}
+     * @param <R> 方法返回值类型
+     * @return 方法调用结果的 future，响应到达时完成
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> call(Function<T, R> function) {
+        RECORDED_INVOCATION.remove();
+        function.apply(recorder);
+        Object[] invocation = RECORDED_INVOCATION.get();
+        RECORDED_INVOCATION.remove();
+        if (invocation == null) {
+            throw new IllegalArgumentException("未调用服务接口方法");
+        }
+        InvocationDescriptor descriptor = proxyInvoker.getDescriptor((Method) invocation[0]);
+        return (CompletableFuture<R>) proxyInvoker.invokeAsync(descriptor, (Object[]) invocation[1]);
+    }
+}
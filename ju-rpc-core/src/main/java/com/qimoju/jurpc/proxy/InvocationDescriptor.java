@@ -0,0 +1,182 @@
+package com.qimoju.jurpc.proxy;
+
+import com.qimoju.jurpc.config.ReferenceConfig;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.constant.RpcConstant;
+import com.qimoju.jurpc.fault.retry.RetryStrategy;
+import com.qimoju.jurpc.fault.retry.RetryStrategyFactory;
+import com.qimoju.jurpc.fault.tolerant.TolerantStrategy;
+import com.qimoju.jurpc.fault.tolerant.TolerantStrategyFactory;
+import com.qimoju.jurpc.loadbalancer.ConsistentHashKey;
+import com.qimoju.jurpc.loadbalancer.ConsistentHashLoadBalancer;
+import com.qimoju.jurpc.loadbalancer.LoadBalancer;
+import com.qimoju.jurpc.loadbalancer.LoadBalancerParamKeys;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.Registry;
+import com.qimoju.jurpc.registry.RegistryFactory;
+import com.qimoju.jurpc.router.Router;
+import lombok.Getter;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 方法调用描述
+ * 创建代理时为每个方法计算一次：服务键、参数类型、注册中心、路由器、负载均衡器、重试和容错策略、超时时间等，
+ * 调用时只需创建请求对象，不再查找 SPI 实例或拼接字符串
+ */
+@Getter
+class InvocationDescriptor {
+
+    private final Method method;
+
+    private final String serviceName;
+
+    private final String methodName;
+
+    private final String serviceVersion;
+
+    private final String serviceKey;
+
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * 是否为异步方法（返回值为 CompletableFuture 或 CompletionStage）
+     */
+    private final boolean async;
+
+    private final Registry registry;
+
+    private final Router router;
+
+    private final LoadBalancer loadBalancer;
+
+    private final RetryStrategy retryStrategy;
+
+    private final TolerantStrategy tolerantStrategy;
+
+    /**
+     * 调用超时时间（毫秒），0 表示不超时
+     */
+    private final long timeout;
+
+    /**
+     * 负载均衡参数（调用方法名），不随参数变化，所有调用共用
+     */
+    private final Map<String, Object> requestParams;
+
+    /**
+     * 标注了 {@link ConsistentHashKey} 的参数下标，-1 表示没有
+     */
+    private final int hashKeyIndex;
+
+    /**
+     * @param method 服务方法
+     * @param rpcConfig 配置
+     * @param referenceConfig 引用配置
+     * @param router 路由器（同一代理的方法共用）
+     * @param loadBalancer 负载均衡器（同一代理的方法共用）
+     */
+    InvocationDescriptor(Method method, RpcConfig rpcConfig, ReferenceConfig referenceConfig,
+                         Router router, LoadBalancer loadBalancer) {
+        this(method,
+                RegistryFactory.getInstance(rpcConfig.getRegistryConfig().getRegistry()),
+                router,
+                loadBalancer,
+                RetryStrategyFactory.getInstance(rpcConfig.getRetryStrategy()),
+                TolerantStrategyFactory.getInstance(rpcConfig.getTolerantStrategy()),
+                getTimeout(method, rpcConfig, referenceConfig));
+    }
+
+    /**
+     * 只包含方法信息，不解析注册中心和各种策略（用于 mock 代理）
+     *
+     * @param method
+     */
+    InvocationDescriptor(Method method) {
+        this(method, null, null, null, null, null, 0);
+    }
+
+    private InvocationDescriptor(Method method, Registry registry, Router router, LoadBalancer loadBalancer,
+                                 RetryStrategy retryStrategy, TolerantStrategy tolerantStrategy, long timeout) {
+        this.method = method;
+        this.serviceName = method.getDeclaringClass().getName();
+        this.methodName = method.getName();
+        this.serviceVersion = RpcConstant.DEFAULT_SERVICE_VERSION;
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName(serviceName);
+        serviceMetaInfo.setServiceVersion(serviceVersion);
+        this.serviceKey = serviceMetaInfo.getServiceKey();
+        this.parameterTypes = method.getParameterTypes();
+        this.async = ServiceProxy.isAsyncMethod(method);
+        this.registry = registry;
+        this.router = router;
+        this.loadBalancer = loadBalancer;
+        this.retryStrategy = retryStrategy;
+        this.tolerantStrategy = tolerantStrategy;
+        this.timeout = timeout;
+        // 将调用方法名（请求路径）作为负载均衡参数
+        this.requestParams = Collections.singletonMap(LoadBalancerParamKeys.METHOD_NAME, methodName);
+        this.hashKeyIndex = findHashKeyIndex(method);
+    }
+
+    /**
+     * 构造请求
+     *
+     * @param args 方法参数
+     * @return
+     */
+    RpcRequest newRpcRequest(Object[] args) {
+        return new RpcRequest(serviceName, methodName, serviceVersion, parameterTypes, args, timeout);
+    }
+
+    /**
+     * 获取负载均衡参数
+     * 方法有 {@link ConsistentHashKey} 参数且参数值不为空时，额外带上该参数值作为一致性哈希的键
+     *
+     * @param args 方法参数
+     * @return
+     */
+    Map<String, Object> getRequestParams(Object[] args) {
+        if (hashKeyIndex < 0 || args[hashKeyIndex] == null) {
+            return requestParams;
+        }
+        return Map.of(LoadBalancerParamKeys.METHOD_NAME, methodName,
+                LoadBalancerParamKeys.HASH_KEY, args[hashKeyIndex]);
+    }
+
+    /**
+     * 获取方法的调用超时时间：方法配置 > 服务配置 > 全局配置
+     *
+     * @param method
+     * @param rpcConfig
+     * @param referenceConfig
+     * @return
+     */
+    private static long getTimeout(Method method, RpcConfig rpcConfig, ReferenceConfig referenceConfig) {
+        Long timeout = referenceConfig.getMethodTimeouts().get(method.getName());
+        if (timeout == null) {
+            timeout = referenceConfig.getTimeout();
+        }
+        if (timeout == null) {
+            timeout = rpcConfig.getTimeout();
+        }
+        return timeout == null ? 0 : Math.max(timeout, 0);
+    }
+
+    private static int findHashKeyIndex(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ConsistentHashKey) {
+                    ConsistentHashLoadBalancer.checkHashKeyType(method.getParameterTypes()[i]);
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
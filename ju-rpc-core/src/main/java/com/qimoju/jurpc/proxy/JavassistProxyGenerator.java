@@ -0,0 +1,150 @@
+package com.qimoju.jurpc.proxy;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.LoaderClassPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Javassist 代理生成器
+ * 为每个服务接口生成一个实现类，每个方法对应一个保存调用描述的字段，方法体直接调用
+ * {@code invoker.invoke(descriptor, args)}，避免 JDK 动态代理每次调用查找 Method 的开销
+ */
+@Slf4j
+class JavassistProxyGenerator {
+
+    private static final String PROXY_INVOKER = ProxyInvoker.class.getName();
+
+    private static final String INVOCATION_DESCRIPTOR = InvocationDescriptor.class.getName();
+
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    /**
+     * 服务接口 => 生成的代理类；生成失败的接口对应 {@link #UNSUPPORTED}，不再重复生成
+     */
+    private static final Map<Class<?>, ProxyClass> PROXY_CLASS_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 生成失败的标记，使用 JDK 动态代理
+     */
+    private static final ProxyClass UNSUPPORTED = new ProxyClass(new Method[0], null);
+
+    /**
+     * 创建代理对象
+     *
+     * @param serviceClass 服务接口
+     * @param proxyInvoker 调用处理
+     * @param <T> 服务接口类型
+     * @return 代理对象，生成失败时返回 null（每个接口只尝试生成一次）
+     */
+    static <T> T newProxyInstance(Class<T> serviceClass, ProxyInvoker proxyInvoker) {
+        ProxyClass proxyClass = PROXY_CLASS_CACHE.computeIfAbsent(serviceClass, JavassistProxyGenerator::generate);
+        if (proxyClass == UNSUPPORTED) {
+            return null;
+        }
+        try {
+            InvocationDescriptor[] descriptors = new InvocationDescriptor[proxyClass.methods.length];
+            for (int i = 0; i < descriptors.length; i++) {
+                descriptors[i] = proxyInvoker.getDescriptor(proxyClass.methods[i]);
+            }
+            return serviceClass.cast(proxyClass.constructor.newInstance(proxyInvoker, descriptors));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("创建代理对象失败：" + serviceClass.getName(), e);
+        }
+    }
+
+    /**
+     * 生成代理类，失败时（如服务接口不是 public、生成的类无法访问）记录一次警告并返回 {@link #UNSUPPORTED}
+     */
+    private static ProxyClass generate(Class<?> serviceClass) {
+        try {
+            List<Method> methods = new ArrayList<>();
+            for (Method method : serviceClass.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    methods.add(method);
+                }
+            }
+
+            ClassPool classPool = new ClassPool(true);
+            classPool.appendClassPath(new LoaderClassPath(serviceClass.getClassLoader()));
+            classPool.appendClassPath(new LoaderClassPath(JavassistProxyGenerator.class.getClassLoader()));
+            // 生成的类与 ServiceProxy 在同一个包中，才能访问包内的 ProxyInvoker 和 InvocationDescriptor
+            String className = ServiceProxy.class.getPackage().getName() + "."
+                    + serviceClass.getSimpleName() + "$JuRpcProxy" + CLASS_COUNTER.getAndIncrement();
+            CtClass ctClass = classPool.makeClass(className);
+            ctClass.setModifiers(javassist.Modifier.PUBLIC | javassist.Modifier.FINAL);
+            ctClass.addInterface(classPool.get(serviceClass.getName()));
+
+            // 字段：调用处理 + 每个方法的调用描述
+            ctClass.addField(CtField.make("private " + PROXY_INVOKER + " invoker;", ctClass));
+            StringBuilder constructorBody = new StringBuilder("{ super(); invoker = $1; ");
+            for (int i = 0; i < methods.size(); i++) {
+                ctClass.addField(CtField.make("private " + INVOCATION_DESCRIPTOR + " d" + i + ";", ctClass));
+                constructorBody.append("d").append(i).append(" = $2[").append(i).append("]; ");
+            }
+            constructorBody.append("}");
+            ctClass.addConstructor(CtNewConstructor.make(
+                    new CtClass[]{classPool.get(PROXY_INVOKER), classPool.get(INVOCATION_DESCRIPTOR + "[]")},
+                    new CtClass[0],
+                    constructorBody.toString(),
+                    ctClass));
+
+            // 方法：直接把对应的调用描述和参数交给调用处理
+            for (int i = 0; i < methods.size(); i++) {
+                Method method = methods.get(i);
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                CtClass[] ctParameterTypes = new CtClass[parameterTypes.length];
+                for (int j = 0; j < parameterTypes.length; j++) {
+                    ctParameterTypes[j] = classPool.get(getCtClassName(parameterTypes[j]));
+                }
+                CtMethod ctMethod = new CtMethod(classPool.get(getCtClassName(method.getReturnType())),
+                        method.getName(), ctParameterTypes, ctClass);
+                ctMethod.setModifiers(javassist.Modifier.PUBLIC);
+                ctMethod.setBody("{ return ($r) invoker.invoke(d" + i + ", $args); }");
+                ctClass.addMethod(ctMethod);
+            }
+
+            Class<?> generatedClass = ctClass.toClass(ServiceProxy.class);
+            ctClass.detach();
+            Constructor<?> constructor = generatedClass.getConstructor(ProxyInvoker.class, InvocationDescriptor[].class);
+            return new ProxyClass(methods.toArray(new Method[0]), constructor);
+        } catch (Exception | LinkageError e) {
+            log.warn("生成代理类失败，使用 JDK 动态代理：{}", serviceClass.getName(), e);
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * Javassist 使用的类名，数组写作 {@code java.lang.String[]}
+     */
+    private static String getCtClassName(Class<?> type) {
+        return type.isArray() ? getCtClassName(type.getComponentType()) + "[]" : type.getName();
+    }
+
+    /**
+     * 生成的代理类，以及构造参数中调用描述对应的方法顺序
+     */
+    private static class ProxyClass {
+
+        private final Method[] methods;
+
+        private final Constructor<?> constructor;
+
+        private ProxyClass(Method[] methods, Constructor<?> constructor) {
+            this.methods = methods;
+            this.constructor = constructor;
+        }
+    }
+}
@@ -2,14 +2,22 @@ package com.qimoju.jurpc.proxy;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * mock服务代理-JDK动态代理
+ * mock服务代理-JDK动态代理，也可作为生成的代理类的调用处理
  */
 @Slf4j
-public class MockServiceProxy implements InvocationHandler {
+public class MockServiceProxy implements ProxyInvoker {
+
+    /**
+     * 方法 => 调用描述（只包含方法信息）
+     */
+    private final Map<Method, InvocationDescriptor> descriptorMap = new ConcurrentHashMap<>();
+
     /**
      * 当代理对象调用方法时，此方法被调用.
      *
@@ -33,7 +41,29 @@ public class MockServiceProxy implements InvocationHandler {
         return getDefaultObject(methodReturnType);
     }
 
-    private Object getDefaultObject(Class<?> methodReturnType) {
+    @Override
+    public InvocationDescriptor getDescriptor(Method method) {
+        return descriptorMap.computeIfAbsent(method, InvocationDescriptor::new);
+    }
+
+    @Override
+    public Object invoke(InvocationDescriptor descriptor, Object[] args) {
+        log.info("mock service proxy, mock invoke: {}", descriptor.getMethodName());
+        return getDefaultObject(descriptor.getMethod().getReturnType());
+    }
+
+    @Override
+    public CompletableFuture<Object> invokeAsync(InvocationDescriptor descriptor, Object[] args) {
+        return CompletableFuture.completedFuture(invoke(descriptor, args));
+    }
+
+    /**
+     * 获取类型的默认值（基本类型返回 0 / false，对象类型返回 null）
+     *
+     * @param methodReturnType
+     * @return
+     */
+    static Object getDefaultObject(Class<?> methodReturnType) {
         //基本类型
         if (methodReturnType.isPrimitive()){
             if (methodReturnType == int.class){
@@ -54,6 +84,12 @@ public class MockServiceProxy implements InvocationHandler {
             if (methodReturnType == short.class) {
                 return (short) 0;
             }
+            if (methodReturnType == byte.class) {
+                return (byte) 0;
+            }
+            if (methodReturnType == char.class) {
+                return (char) 0;
+            }
         }
         //对象类型
         return null;
@@ -0,0 +1,39 @@
+package com.qimoju.jurpc.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 代理调用处理
+ * 生成的代理类为每个方法保存调用描述，调用时直接传给处理器，不再经过 InvocationHandler 查找 Method；
+ * 同时作为 JDK 动态代理的调用处理
+ */
+interface ProxyInvoker extends InvocationHandler {
+
+    /**
+     * 获取方法的调用描述
+     *
+     * @param method 服务接口方法
+     * @return
+     */
+    InvocationDescriptor getDescriptor(Method method);
+
+    /**
+     * 处理方法调用
+     *
+     * @param descriptor 调用描述
+     * @param args 方法参数
+     * @return 方法调用的结果
+     */
+    Object invoke(InvocationDescriptor descriptor, Object[] args);
+
+    /**
+     * 以异步方式处理方法调用（用于异步调用句柄，方法本身的返回值不是 future）
+     *
+     * @param descriptor 调用描述
+     * @param args 方法参数
+     * @return 方法调用结果的 future
+     */
+    CompletableFuture<Object> invokeAsync(InvocationDescriptor descriptor, Object[] args);
+}
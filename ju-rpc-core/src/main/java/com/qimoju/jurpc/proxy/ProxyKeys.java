@@ -0,0 +1,19 @@
+package com.qimoju.jurpc.proxy;
+
+/**
+ * 代理生成方式键名常量
+ *
+ */
+public interface ProxyKeys {
+
+    /**
+     * JDK 动态代理
+     */
+    String JDK = "jdk";
+
+    /**
+     * Javassist 生成代理类，不可用时退回 JDK 动态代理
+     */
+    String JAVASSIST = "javassist";
+
+}
@@ -0,0 +1,24 @@
+package com.qimoju.jurpc.proxy;
+
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 请求发送（代理与传输层之间的接口）
+ * 默认通过 VertxTcpClient 发送，基准测试中可替换为不发起网络请求的实现
+ */
+@FunctionalInterface
+interface RequestSender {
+
+    /**
+     * 发送请求
+     *
+     * @param rpcRequest 请求
+     * @param serviceMetaInfo 选中的服务节点
+     * @return 响应 future
+     */
+    CompletableFuture<RpcResponse> send(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo);
+}
@@ -2,33 +2,83 @@ package com.qimoju.jurpc.proxy;
 
 import cn.hutool.core.collection.CollUtil;
 import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.ReferenceConfig;
 import com.qimoju.jurpc.config.RpcConfig;
-import com.qimoju.jurpc.constant.RpcConstant;
-import com.qimoju.jurpc.fault.retry.RetryStrategy;
-import com.qimoju.jurpc.fault.retry.RetryStrategyFactory;
-import com.qimoju.jurpc.fault.tolerant.TolerantStrategy;
-import com.qimoju.jurpc.fault.tolerant.TolerantStrategyFactory;
 import com.qimoju.jurpc.loadbalancer.LoadBalancer;
 import com.qimoju.jurpc.loadbalancer.LoadBalancerFactory;
+import com.qimoju.jurpc.loadbalancer.ServiceNodeStats;
+import com.qimoju.jurpc.loadbalancer.VersionedStateCache;
 import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
 import com.qimoju.jurpc.model.ServiceMetaInfo;
-import com.qimoju.jurpc.registry.Registry;
-import com.qimoju.jurpc.registry.RegistryFactory;
-import com.qimoju.jurpc.serializer.Serializer;
-import com.qimoju.jurpc.serializer.SerializerFactory;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+import com.qimoju.jurpc.router.Router;
+import com.qimoju.jurpc.router.RouterFactory;
 import com.qimoju.jurpc.server.tcp.VertxTcpClient;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
- * 动态代理 （JDK动态代理）
+ * 服务代理，可作为 JDK 动态代理的 InvocationHandler，也可作为生成的代理类的调用处理
+ * 返回值为 CompletableFuture / CompletionStage 的方法走异步调用，响应到达时完成，不阻塞调用线程。
+ * 创建代理时为接口的每个方法计算好调用描述（服务键、策略实例等），调用时直接使用
  */
-public class ServiceProxy implements InvocationHandler {
+public class ServiceProxy implements ProxyInvoker {
+
+    private final Class<?> serviceClass;
+
+    /**
+     * 方法 => 调用描述
+     */
+    private final Map<Method, InvocationDescriptor> descriptorMap;
+
+    private final RequestSender requestSender;
+
+    /**
+     * 节点 => 调用统计（按服务发现的节点快照缓存），发送请求时不必每次按节点键查找
+     */
+    private final VersionedStateCache<Map<ServiceMetaInfo, ServiceNodeStats>> statsCache =
+            new VersionedStateCache<>(ServiceProxy::buildStatsMap);
+
+    public ServiceProxy(Class<?> serviceClass) {
+        this(serviceClass, new ReferenceConfig());
+    }
+
+    public ServiceProxy(Class<?> serviceClass, ReferenceConfig referenceConfig) {
+        this(serviceClass, RpcApplication.getRpcConfig(), referenceConfig, VertxTcpClient::doRequestAsync);
+    }
+
+    ServiceProxy(Class<?> serviceClass, RpcConfig rpcConfig, RequestSender requestSender) {
+        this(serviceClass, rpcConfig, new ReferenceConfig(), requestSender);
+    }
+
+    ServiceProxy(Class<?> serviceClass, RpcConfig rpcConfig, ReferenceConfig referenceConfig, RequestSender requestSender) {
+        this.serviceClass = serviceClass;
+        this.requestSender = requestSender;
+        // 路由器和负载均衡器按本次引用的配置创建，所有方法共用（共享按节点快照缓存的状态）
+        Router router = RouterFactory.getRouter(rpcConfig);
+        LoadBalancer loadBalancer = LoadBalancerFactory.getLoadBalancer(rpcConfig);
+        Map<Method, InvocationDescriptor> descriptors = new HashMap<>();
+        for (Method method : serviceClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            descriptors.put(method, new InvocationDescriptor(method, rpcConfig, referenceConfig, router, loadBalancer));
+        }
+        this.descriptorMap = descriptors;
+    }
+
     /**
      * 当代理对象调用方法时，该方法会被调用
      * 它负责构造RPC请求，发现服务地址，并发送请求以获取响应
@@ -41,53 +91,242 @@ public class ServiceProxy implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // 指定序列化器
-        final Serializer serializer = SerializerFactory.getInstance(RpcApplication.getRpcConfig().getSerializer());
+        // equals / hashCode / toString 在本地处理
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        return invoke(getDescriptor(method), args);
+    }
 
-        // 构造请求
-        String serviceName = method.getDeclaringClass().getName();
-        RpcRequest rpcRequest = RpcRequest.builder()
-                .serviceName(serviceName)
-                .methodName(method.getName())
-                .parameterTypes(method.getParameterTypes())
-                .args(args)
-                .build();
-        RpcConfig rpcConfig = null;
+    /**
+     * 处理方法调用（生成的代理类直接调用此方法）
+     *
+     * @param descriptor 调用描述
+     * @param args 方法参数
+     * @return 方法调用的结果
+     */
+    @Override
+    public Object invoke(InvocationDescriptor descriptor, Object[] args) {
+        // 异步方法
+        if (descriptor.isAsync()) {
+            return invokeAsync(descriptor, args);
+        }
+        return invokeSync(descriptor, args);
+    }
 
+    /**
+     * 同步调用
+     *
+     * @param descriptor 调用描述
+     * @param args 方法参数
+     * @return 方法调用的结果
+     */
+    Object invokeSync(InvocationDescriptor descriptor, Object[] args) {
+        // 构造请求
+        RpcRequest rpcRequest = descriptor.newRpcRequest(args);
         RpcResponse rpcResponse;
+        try {
+            List<ServiceMetaInfo> serviceMetaInfoList = discover(descriptor);
+            ServiceMetaInfo selectedServiceMetaInfo = selectServiceMetaInfo(descriptor, serviceMetaInfoList, args);
+            ServiceNodeStats serviceNodeStats = getServiceNodeStats(serviceMetaInfoList, selectedServiceMetaInfo);
+            long deadlineNanos = getDeadlineNanos(descriptor.getTimeout());
+            // rpc 请求
+            // 使用重试机制，所有重试共用一个截止时间
+            rpcResponse = descriptor.getRetryStrategy().doRetry(() ->
+                    send(rpcRequest, selectedServiceMetaInfo, serviceNodeStats, deadlineNanos).get(),
+                    deadlineNanos
+            );
+        } catch (Exception e) {
+            // 容错
+            rpcResponse = descriptor.getTolerantStrategy().doTolerant(null, e);
+        }
+        return rpcResponse.getData();
+    }
+
+    /**
+     * 异步调用
+     * 重试和容错都以异步方式执行，返回的 future 在响应到达（或容错完成）时完成
+     *
+     * @param descriptor 调用描述
+     * @param args 方法参数
+     * @return 方法调用结果的 future
+     */
+    @Override
+    public CompletableFuture<Object> invokeAsync(InvocationDescriptor descriptor, Object[] args) {
+        RpcRequest rpcRequest = descriptor.newRpcRequest(args);
+
+        CompletableFuture<RpcResponse> responseFuture;
+        try {
+            List<ServiceMetaInfo> serviceMetaInfoList = discover(descriptor);
+            ServiceMetaInfo selectedServiceMetaInfo = selectServiceMetaInfo(descriptor, serviceMetaInfoList, args);
+            ServiceNodeStats serviceNodeStats = getServiceNodeStats(serviceMetaInfoList, selectedServiceMetaInfo);
+            long deadlineNanos = getDeadlineNanos(descriptor.getTimeout());
+            // rpc 请求，使用异步重试，所有重试共用一个截止时间
+            responseFuture = descriptor.getRetryStrategy().doRetryAsync(() ->
+                    send(rpcRequest, selectedServiceMetaInfo, serviceNodeStats, deadlineNanos),
+                    deadlineNanos
+            );
+        } catch (Exception e) {
+            responseFuture = CompletableFuture.failedFuture(e);
+        }
 
+        // 容错
+        return responseFuture
+                .handle((rpcResponse, e) -> e == null
+                        ? CompletableFuture.completedFuture(rpcResponse)
+                        : descriptor.getTolerantStrategy().doTolerantAsync(null, unwrapException(e)))
+                .thenCompose(Function.identity())
+                .thenApply(RpcResponse::getData);
+    }
+
+    /**
+     * 向选中的节点发送请求，并记录节点的调用统计（正在处理的请求数、耗时、服务端负载报告）
+     * 超时时间是整个调用（包括重试）的截止时间，每次尝试发送的是带剩余时间的请求副本；截止时间已过时不再发送
+     *
+     * @param rpcRequest 请求
+     * @param serviceMetaInfo 选中的节点
+     * @param serviceNodeStats 选中节点的调用统计
+     * @param deadlineNanos 截止时间（System.nanoTime），0 表示不超时
+     * @return 响应 future
+     */
+    private CompletableFuture<RpcResponse> send(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo,
+                                                ServiceNodeStats serviceNodeStats, long deadlineNanos) {
+        long startNanos = System.nanoTime();
+        RpcRequest attemptRequest = rpcRequest;
+        if (deadlineNanos != 0) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - startNanos);
+            if (remainingMillis <= 0) {
+                return CompletableFuture.failedFuture(new TimeoutException("调用超时（" + rpcRequest.getTimeout() + "ms）："
+                        + serviceMetaInfo.getServiceHost() + ":" + serviceMetaInfo.getServicePort()));
+            }
+            attemptRequest = rpcRequest.withTimeout(remainingMillis);
+        }
+        serviceNodeStats.beginRequest();
+        CompletableFuture<RpcResponse> responseFuture;
         try {
-            // 从注册中心获取服务提供者请求地址
-            rpcConfig = RpcApplication.getRpcConfig();
-            Registry registry = RegistryFactory.getInstance(rpcConfig.getRegistryConfig().getRegistry());
-            ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
-            serviceMetaInfo.setServiceName(serviceName);
-            serviceMetaInfo.setServiceVersion(RpcConstant.DEFAULT_SERVICE_VERSION);
-            List<ServiceMetaInfo> serviceMetaInfoList = registry.serviceDiscovery(serviceMetaInfo.getServiceKey());
-            if (CollUtil.isEmpty(serviceMetaInfoList)) {
-                throw new RuntimeException("暂无服务地址");
+            responseFuture = requestSender.send(attemptRequest, serviceMetaInfo);
+        } catch (RuntimeException e) {
+            serviceNodeStats.endRequest(System.nanoTime() - startNanos, false);
+            throw e;
+        }
+        responseFuture.whenComplete((rpcResponse, e) -> {
+            serviceNodeStats.endRequest(System.nanoTime() - startNanos, e == null);
+            if (rpcResponse != null && rpcResponse.getLoadReport() != null) {
+                serviceNodeStats.updateLoadReport(rpcResponse.getLoadReport());
             }
+        });
+        return responseFuture;
+    }
 
+    /**
+     * 计算整个调用的截止时间
+     *
+     * @param timeout 超时时间（毫秒），0 表示不超时
+     * @return 截止时间（System.nanoTime），0 表示不超时
+     */
+    private static long getDeadlineNanos(long timeout) {
+        if (timeout <= 0) {
+            return 0;
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        // nanoTime 可能恰好算出 0，避免与“不超时”混淆
+        return deadlineNanos != 0 ? deadlineNanos : 1;
+    }
 
-            // 负载均衡
-            LoadBalancer loadBalancer = LoadBalancerFactory.getInstance(rpcConfig.getLoadBalancer());
-            // 将调用方法名（请求路径）作为负载均衡参数
-            Map<String, Object> requestParams = new HashMap<>();
-            requestParams.put("methodName", rpcRequest.getMethodName());
-            ServiceMetaInfo selectedServiceMetaInfo = loadBalancer.select(requestParams, serviceMetaInfoList);
+    /**
+     * 是否为异步方法（返回值为 CompletableFuture 或 CompletionStage）
+     *
+     * @param method
+     * @return
+     */
+    static boolean isAsyncMethod(Method method) {
+        Class<?> returnType = method.getReturnType();
+        return returnType == CompletableFuture.class || returnType == CompletionStage.class;
+    }
 
-            // rpc 请求
-            // 使用重试机制
-            RetryStrategy retryStrategy = RetryStrategyFactory.getInstance(rpcConfig.getRetryStrategy());
-            rpcResponse = retryStrategy.doRetry(() ->
-                    VertxTcpClient.doRequest(rpcRequest, selectedServiceMetaInfo)
-            );
+    @Override
+    public InvocationDescriptor getDescriptor(Method method) {
+        InvocationDescriptor descriptor = descriptorMap.get(method);
+        if (descriptor == null) {
+            throw new IllegalArgumentException("不是服务接口的方法：" + method);
+        }
+        return descriptor;
+    }
 
-        } catch (Exception e) {
-            // 容错
-            TolerantStrategy tolerantStrategy = TolerantStrategyFactory.getInstance(rpcConfig.getTolerantStrategy());
-            rpcResponse = tolerantStrategy.doTolerant(null, e);
+    /**
+     * 从注册中心获取服务提供者
+     *
+     * @param descriptor
+     * @return
+     */
+    private List<ServiceMetaInfo> discover(InvocationDescriptor descriptor) {
+        // 从注册中心获取服务提供者请求地址
+        List<ServiceMetaInfo> serviceMetaInfoList = descriptor.getRegistry().serviceDiscovery(descriptor.getServiceKey());
+        if (CollUtil.isEmpty(serviceMetaInfoList)) {
+            throw new RuntimeException("暂无服务地址");
         }
-        return rpcResponse.getData();
+        return serviceMetaInfoList;
+    }
+
+    /**
+     * 服务提供者经过路由筛选后通过负载均衡选出一个
+     *
+     * @param descriptor
+     * @param serviceMetaInfoList 服务发现得到的全部服务提供者
+     * @param args
+     * @return
+     */
+    private ServiceMetaInfo selectServiceMetaInfo(InvocationDescriptor descriptor, List<ServiceMetaInfo> serviceMetaInfoList,
+                                                  Object[] args) {
+        // 路由筛选，再负载均衡
+        Map<String, Object> requestParams = descriptor.getRequestParams(args);
+        List<ServiceMetaInfo> routedServiceMetaInfoList = descriptor.getRouter().route(requestParams, serviceMetaInfoList);
+        return descriptor.getLoadBalancer().select(requestParams, routedServiceMetaInfoList);
+    }
+
+    /**
+     * 获取选中节点的调用统计
+     * 路由器和负载均衡器返回的是服务发现结果中的节点对象，按对象查找缓存；找不到时（如自定义路由器复制了节点）按节点键查找
+     *
+     * @param serviceMetaInfoList 服务发现得到的全部服务提供者
+     * @param serviceMetaInfo 选中的节点
+     * @return
+     */
+    private ServiceNodeStats getServiceNodeStats(List<ServiceMetaInfo> serviceMetaInfoList, ServiceMetaInfo serviceMetaInfo) {
+        if (!(serviceMetaInfoList instanceof ServiceSnapshot)) {
+            return ServiceNodeStats.of(serviceMetaInfo);
+        }
+        ServiceNodeStats serviceNodeStats = statsCache.get(serviceMetaInfoList).get(serviceMetaInfo);
+        return serviceNodeStats != null ? serviceNodeStats : ServiceNodeStats.of(serviceMetaInfo);
+    }
+
+    private static Map<ServiceMetaInfo, ServiceNodeStats> buildStatsMap(List<ServiceMetaInfo> serviceMetaInfoList) {
+        ServiceNodeStats[] serviceNodeStats = ServiceNodeStats.of(serviceMetaInfoList);
+        Map<ServiceMetaInfo, ServiceNodeStats> statsMap = new IdentityHashMap<>();
+        for (int i = 0; i < serviceNodeStats.length; i++) {
+            statsMap.put(serviceMetaInfoList.get(i), serviceNodeStats[i]);
+        }
+        return statsMap;
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return serviceClass.getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static Exception unwrapException(Throwable e) {
+        Throwable cause = e;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
     }
 }
@@ -1,7 +1,7 @@
 package com.qimoju.jurpc.proxy;
 
 import com.qimoju.jurpc.RpcApplication;
-import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.config.ReferenceConfig;
 import com.qimoju.jurpc.proxy.ServiceProxy;
 
 import java.lang.reflect.Proxy;
@@ -20,14 +20,43 @@ public class ServiceProxyFactory {
      * @return 返回一个实现了指定接口的代理对象，通过这个代理对象可以进行远程方法调用等操作
      */
     public static <T> T getProxy(Class<T> serviceClass){
-        if (RpcApplication.getRpcConfig().isMock()){
-            return getMockProxy(serviceClass);
-        }
-        return (T) Proxy.newProxyInstance(
-                serviceClass.getClassLoader(),
-                new Class<?>[]{serviceClass},
-                new ServiceProxy()
-        );
+        return getProxy(serviceClass, new ReferenceConfig());
+    }
+
+    /**
+     * 根据服务类和服务引用配置（如超时时间）生成代理对象
+     *
+     * @param serviceClass 服务接口的类对象
+     * @param referenceConfig 服务引用配置，未指定的项使用全局配置
+     * @param <T> 服务接口类型
+     * @return 代理对象
+     */
+    public static <T> T getProxy(Class<T> serviceClass, ReferenceConfig referenceConfig){
+        return newProxyInstance(serviceClass, newProxyInvoker(serviceClass, referenceConfig));
+    }
+
+    /**
+     * 获取服务的异步调用句柄
+     * 用于以异步方式调用返回值为普通类型的服务方法；返回值声明为 CompletableFuture 的方法也可以直接通过 getProxy 获取的代理异步调用
+     *
+     * @param serviceClass 服务接口的类对象
+     * @param <T> 服务接口类型
+     * @return 异步调用句柄
+     */
+    public static <T> AsyncServiceInvoker<T> getAsyncInvoker(Class<T> serviceClass) {
+        return getAsyncInvoker(serviceClass, new ReferenceConfig());
+    }
+
+    /**
+     * 根据服务类和服务引用配置（如超时时间）获取服务的异步调用句柄
+     *
+     * @param serviceClass 服务接口的类对象
+     * @param referenceConfig 服务引用配置，未指定的项使用全局配置
+     * @param <T> 服务接口类型
+     * @return 异步调用句柄
+     */
+    public static <T> AsyncServiceInvoker<T> getAsyncInvoker(Class<T> serviceClass, ReferenceConfig referenceConfig) {
+        return new AsyncServiceInvoker<>(serviceClass, newProxyInvoker(serviceClass, referenceConfig));
     }
 
     /**
@@ -40,10 +69,43 @@ public class ServiceProxyFactory {
      * @return 返回一个指定服务接口类型的代理实例，通过这个实例可以调用接口方法
      */
     public static <T> T getMockProxy(Class<T> serviceClass){
+        return newProxyInstance(serviceClass, new MockServiceProxy());
+    }
+
+    /**
+     * 按配置创建调用处理：开启 mock 时返回默认值，否则发起远程调用
+     *
+     * @param serviceClass 服务接口
+     * @param referenceConfig 服务引用配置
+     * @return
+     */
+    private static ProxyInvoker newProxyInvoker(Class<?> serviceClass, ReferenceConfig referenceConfig) {
+        if (RpcApplication.getRpcConfig().isMock()){
+            return new MockServiceProxy();
+        }
+        return new ServiceProxy(serviceClass, referenceConfig);
+    }
+
+    /**
+     * 按配置的代理方式创建代理对象，生成代理类失败时使用 JDK 动态代理
+     *
+     * @param serviceClass 服务接口
+     * @param handler 调用处理
+     * @param <T> 服务接口类型
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newProxyInstance(Class<T> serviceClass, ProxyInvoker handler) {
+        if (ProxyKeys.JAVASSIST.equals(RpcApplication.getRpcConfig().getProxy())) {
+            T proxy = JavassistProxyGenerator.newProxyInstance(serviceClass, handler);
+            if (proxy != null) {
+                return proxy;
+            }
+        }
         return (T) Proxy.newProxyInstance(
                 serviceClass.getClassLoader(),
                 new Class<?>[]{serviceClass},
-                new MockServiceProxy()
+                handler
         );
     }
 }
@@ -2,24 +2,26 @@ package com.qimoju.jurpc.registry;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.ConcurrentHashSet;
-import cn.hutool.cron.CronUtil;
-import cn.hutool.cron.task.Task;
 import cn.hutool.json.JSONUtil;
+import com.qimoju.jurpc.RpcApplication;
 import com.qimoju.jurpc.config.RegistryConfig;
 import com.qimoju.jurpc.model.ServiceMetaInfo;
 import io.etcd.jetcd.*;
+import io.etcd.jetcd.kv.GetResponse;
 import io.etcd.jetcd.options.GetOption;
 import io.etcd.jetcd.options.PutOption;
+import io.etcd.jetcd.options.WatchOption;
 import io.etcd.jetcd.watch.WatchEvent;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-
+@Slf4j
 public class EtcdRegistry implements Registry{
 
     private Client client;
@@ -32,9 +34,19 @@ public class EtcdRegistry implements Registry{
     private static final String ETCD_ROOT_PATH = "/rpc/";
 
     /**
-     * 本地注册节点的key集合，用于维护服务续期
+     * 心跳（续签）间隔，需小于租约时间
+     */
+    private static final long HEART_BEAT_INTERVAL_MILLIS = 10_000L;
+
+    /**
+     * 心跳定时器 id，-1 表示未开启
      */
-    private final Set<String> localRegisterNodeKeySet = new HashSet<>();
+    private volatile long heartBeatTimerId = -1;
+
+    /**
+     * 本地注册节点的key集合，用于维护服务续期（续签在 worker 线程上遍历，需线程安全）
+     */
+    private final Set<String> localRegisterNodeKeySet = new ConcurrentHashSet<>();
 
     /**
      * 服务缓存，用于存储服务元信息，以方便快速查找服务
@@ -42,7 +54,7 @@ public class EtcdRegistry implements Registry{
     private final RegistryServiceCache registryServiceCache = new RegistryServiceCache();
 
     /**
-     * 正在监听的 key 集合
+     * 正在监听的服务键集合
      */
     private final Set<String> watchingKeySet = new ConcurrentHashSet<>();
 
@@ -116,42 +128,36 @@ public class EtcdRegistry implements Registry{
     public List<ServiceMetaInfo> serviceDiscovery(String serviceKey) {
 
         //优先从缓存获取服务
-        List<ServiceMetaInfo> cachedServiceMetaInfoList = registryServiceCache.readCache();
-        if (!CollUtil.isEmpty(cachedServiceMetaInfoList)){
-            return cachedServiceMetaInfoList;
+        ServiceSnapshot cachedServiceSnapshot = registryServiceCache.readCache(serviceKey);
+        if (cachedServiceSnapshot != null){
+            return cachedServiceSnapshot;
         }
 
         // 前缀搜索，结尾一定要加“/”
         // 这里通过拼接ETCD_ROOT_PATH和服务键来构建搜索前缀，用于在Etcd中查找服务
-        String searchPrefix = ETCD_ROOT_PATH + serviceKey ;
+        String searchPrefix = getSearchPrefix(serviceKey);
 
         try {
             // 前缀查询
             // 构建查询选项，设置为前缀查询，以便获取所有以searchPrefix开头的键值对
             GetOption getOption = GetOption.builder().isPrefix(true).build();
 
-            // 使用构建的选项执行前缀查询，并获取查询结果中的所有键值对
-            List<KeyValue> keyValues = kvClient.get(
+            // 使用构建的选项执行前缀查询
+            GetResponse getResponse = kvClient.get(
                     ByteSequence.from(searchPrefix, StandardCharsets.UTF_8),
                     getOption
-            )
-            .get()
-            .getKvs();
+            ).get();
 
             // 解析服务信息
-            List<ServiceMetaInfo> serviceMetaInfoList = keyValues.stream()
-                    .map(keyValue -> {
-                        String key = keyValue.getKey().toString(StandardCharsets.UTF_8);
-                        // 监听 key 的变化
-                        watch(key);
-                        String value = keyValue.getValue().toString(StandardCharsets.UTF_8);
-                        return JSONUtil.toBean(value, ServiceMetaInfo.class);
-                    })
+            List<ServiceMetaInfo> serviceMetaInfoList = getResponse.getKvs().stream()
+                    .map(keyValue -> JSONUtil.toBean(keyValue.getValue().toString(StandardCharsets.UTF_8), ServiceMetaInfo.class))
                     .collect(Collectors.toList());
 
             // 写入服务缓存
-            registryServiceCache.writeCache(serviceMetaInfoList);
-            return serviceMetaInfoList;
+            ServiceSnapshot serviceSnapshot = registryServiceCache.writeCache(serviceKey, serviceMetaInfoList);
+            // 从查询结果的下一个版本开始监听，查询和开始监听之间的变化不会遗漏
+            watch(serviceKey, getResponse.getHeader().getRevision() + 1);
+            return serviceSnapshot;
         } catch (Exception e) {
             // 如果查询过程中发生异常，抛出运行时异常，便于调用者处理
             throw new RuntimeException("获取服务列表失败",e);
@@ -168,6 +174,10 @@ public class EtcdRegistry implements Registry{
     public void destroy() {
         //todo 销毁时应当主动从etcd中删除节点
         System.out.println("当前节点下线");
+        // 停止心跳
+        if (heartBeatTimerId != -1) {
+            RpcApplication.getRpcRuntime().getVertx().cancelTimer(heartBeatTimerId);
+        }
         // 释放资源
         // 关闭与客户端的连接
         if (client != null){
@@ -181,71 +191,108 @@ public class EtcdRegistry implements Registry{
 
     /**
      * 心跳机制，用于定期续签服务注册信息，以避免服务因长时间未更新状态而被错误地认为已下线
-     * 通过定时任务定期检查并更新服务的注册信息，确保服务的活跃状态被正确维护
+     * 使用运行时共享的 Vert.x 定时器，每10秒在 worker 线程上执行一次续签，不额外创建调度线程
      */
     @Override
     public void heartBeat() {
-        // 定义一个定时任务，每10秒执行一次续签操作
-        // 使用Cron表达式灵活定义任务执行时间，这里设置为每10秒执行一次
-        CronUtil.schedule("*/10 * * * * *", new Task() {
-            @Override
-            public void execute() {
-                // 遍历本节点所有的 key，对每个服务的注册信息进行续签
-                for (String key : localRegisterNodeKeySet) {
-                    try {
-                        // 从Etcd中获取当前key对应的服务信息
-                        List<KeyValue> keyValues = kvClient.get(ByteSequence.from(key, StandardCharsets.UTF_8))
-                                .get()
-                                .getKvs();
-                        // 该节点已过期（需要重启节点才能重新注册）
-                        if (CollUtil.isEmpty(keyValues)) {
-                            continue;
-                        }
-                        // 节点未过期，重新注册（相当于续签）
-                        KeyValue keyValue = keyValues.get(0);
-                        String value = keyValue.getValue().toString(StandardCharsets.UTF_8);
-                        ServiceMetaInfo serviceMetaInfo = JSONUtil.toBean(value, ServiceMetaInfo.class);
-                        register(serviceMetaInfo);
-                    } catch (Exception e) {
-                        // 如果续签过程中发生异常，抛出运行时异常，并提供详细错误信息
-                        throw new RuntimeException(key + "续签失败", e);
-                    }
+        Vertx vertx = RpcApplication.getRpcRuntime().getVertx();
+        heartBeatTimerId = vertx.setPeriodic(HEART_BEAT_INTERVAL_MILLIS, id ->
+                // 续签需要阻塞等待 etcd 响应，不能在 event loop 上执行
+                vertx.executeBlocking(() -> {
+                    renewLocalRegisterNodes();
+                    return null;
+                }, false)
+        );
+    }
+
+    /**
+     * 续签本节点注册的所有 key
+     */
+    private void renewLocalRegisterNodes() {
+        // 遍历本节点所有的 key，对每个服务的注册信息进行续签
+        for (String key : localRegisterNodeKeySet) {
+            try {
+                // 从Etcd中获取当前key对应的服务信息
+                List<KeyValue> keyValues = kvClient.get(ByteSequence.from(key, StandardCharsets.UTF_8))
+                        .get()
+                        .getKvs();
+                // 该节点已过期（需要重启节点才能重新注册）
+                if (CollUtil.isEmpty(keyValues)) {
+                    continue;
                 }
+                // 节点未过期，重新注册（相当于续签）
+                KeyValue keyValue = keyValues.get(0);
+                String value = keyValue.getValue().toString(StandardCharsets.UTF_8);
+                ServiceMetaInfo serviceMetaInfo = JSONUtil.toBean(value, ServiceMetaInfo.class);
+                register(serviceMetaInfo);
+            } catch (Exception e) {
+                // 单个 key 续签失败不影响其他 key
+                log.error("{} 续签失败", key, e);
             }
-        });
-        // 支持秒级别定时任务，提高时间调度的精确度
-        CronUtil.setMatchSecond(true);
-        // 启动定时任务调度器，开始执行心跳检测逻辑
-        CronUtil.start();
+        }
     }
 
     /**
      * 监听（消费端）
      *
-     * @param serviceNodeKey
+     * @param serviceKey 服务键，监听该服务下所有节点的变化
      */
     @Override
-    public void watch(String serviceNodeKey) {
-        Watch watchClient = client.getWatchClient();
+    public void watch(String serviceKey) {
+        watch(serviceKey, 0);
+    }
+
+    /**
+     * 按服务前缀监听节点变化，逐个节点更新服务缓存
+     *
+     * @param serviceKey 服务键
+     * @param revision 开始监听的版本，0 表示从当前版本开始
+     */
+    private void watch(String serviceKey, long revision) {
         // 之前未被监听，开启监听
-        boolean newWatch = watchingKeySet.add(serviceNodeKey);
-        if (newWatch) {
-            watchClient.watch(ByteSequence.from(serviceNodeKey, StandardCharsets.UTF_8), response -> {
-                for (WatchEvent event : response.getEvents()) {
-                    switch (event.getEventType()) {
-                        // key 删除时触发
-                        case DELETE:
-                            // 清理注册服务缓存
-                            registryServiceCache.clearCache();
-                            break;
-                        case PUT:
-                        default:
-                            break;
-                    }
-                }
-            });
+        boolean newWatch = watchingKeySet.add(serviceKey);
+        if (!newWatch) {
+            return;
+        }
+        WatchOption.Builder watchOptionBuilder = WatchOption.builder().isPrefix(true);
+        if (revision > 0) {
+            watchOptionBuilder.withRevision(revision);
         }
+        Watch watchClient = client.getWatchClient();
+        watchClient.watch(ByteSequence.from(getSearchPrefix(serviceKey), StandardCharsets.UTF_8), watchOptionBuilder.build(),
+                Watch.listener(response -> {
+                    for (WatchEvent event : response.getEvents()) {
+                        KeyValue keyValue = event.getKeyValue();
+                        switch (event.getEventType()) {
+                            // 节点新增或更新（续签时内容不变，不会产生新快照）
+                            case PUT:
+                                String value = keyValue.getValue().toString(StandardCharsets.UTF_8);
+                                registryServiceCache.putNode(serviceKey, JSONUtil.toBean(value, ServiceMetaInfo.class));
+                                break;
+                            // 节点删除或过期
+                            case DELETE:
+                                String key = keyValue.getKey().toString(StandardCharsets.UTF_8);
+                                registryServiceCache.removeNode(serviceKey, key.substring(ETCD_ROOT_PATH.length()));
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                }, e -> {
+                    // 监听中断（如监听的版本已被压缩），清除该服务的缓存，下次服务发现时重新查询并监听
+                    log.error("监听服务 {} 失败", serviceKey, e);
+                    watchingKeySet.remove(serviceKey);
+                    registryServiceCache.clearCache(serviceKey);
+                }));
     }
 
-
+    /**
+     * 服务节点的前缀，结尾带“/”，避免匹配到服务键以当前服务键开头的其他服务
+     *
+     * @param serviceKey
+     * @return
+     */
+    private static String getSearchPrefix(String serviceKey) {
+        return ETCD_ROOT_PATH + serviceKey + "/";
+    }
 }
@@ -1,21 +1,42 @@
 package com.qimoju.jurpc.registry;
 
+import com.qimoju.jurpc.model.RpcRequest;
+
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 本地注册器
+ * 保存服务名到服务调用器（单例服务实例 + 预先创建的方法调用器）的映射，处理请求时直接取用
+ */
 public class LocalRegistry {
     /**
      * 注册中心存储
      */
-    private static final Map<String,Class<?>> map = new ConcurrentHashMap<>();
+    private static final Map<String, ServiceInvoker> map = new ConcurrentHashMap<>();
 
     /**
-     * 注册
+     * 注册，使用无参构造方法创建一个服务实例，所有请求共用
      * @param serviceName
      * @param implClass
      */
     public static void register(String serviceName, Class<?> implClass){
-        map.put(serviceName, implClass);
+        Object instance;
+        try {
+            instance = implClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException("创建服务实例失败：" + implClass.getName(), e);
+        }
+        registerInstance(serviceName, instance);
+    }
+
+    /**
+     * 注册已有的服务实例（如 Spring Bean）
+     * @param serviceName
+     * @param instance
+     */
+    public static void registerInstance(String serviceName, Object instance){
+        map.put(serviceName, new ServiceInvoker(instance));
     }
 
     /**
@@ -24,9 +45,33 @@ public class LocalRegistry {
      * @return
      */
     public static Class<?> get(String serviceName){
+        ServiceInvoker serviceInvoker = map.get(serviceName);
+        return serviceInvoker == null ? null : serviceInvoker.getInstance().getClass();
+    }
+
+    /**
+     * 获取服务调用器
+     * @param serviceName
+     * @return
+     */
+    public static ServiceInvoker getInvoker(String serviceName){
         return map.get(serviceName);
     }
 
+    /**
+     * 获取请求对应的方法调用器
+     * @param rpcRequest
+     * @return
+     * @throws NoSuchMethodException 服务未注册或没有该方法
+     */
+    public static MethodInvoker getMethodInvoker(RpcRequest rpcRequest) throws NoSuchMethodException {
+        ServiceInvoker serviceInvoker = map.get(rpcRequest.getServiceName());
+        if (serviceInvoker == null) {
+            throw new NoSuchMethodException("服务未注册：" + rpcRequest.getServiceName());
+        }
+        return serviceInvoker.getMethodInvoker(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
+    }
+
     /**
      * 删除服务
      * @param serviceName
@@ -0,0 +1,59 @@
+package com.qimoju.jurpc.registry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * 服务方法调用器
+ * 注册服务时预先为每个方法创建绑定到服务实例的 MethodHandle，调用时不再查找方法，也不走 Method.invoke
+ */
+public class MethodInvoker {
+
+    private final Method method;
+
+    /**
+     * 参数类型，匹配重载方法时使用，避免每次调用 Method.getParameterTypes() 复制数组
+     */
+    final Class<?>[] parameterTypes;
+
+    /**
+     * 签名统一为 (Object[])Object 的方法句柄，已绑定服务实例
+     */
+    private final MethodHandle methodHandle;
+
+    MethodInvoker(Object instance, Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        try {
+            // 实现类可能不是 public 的
+            method.setAccessible(true);
+            this.methodHandle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(instance)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (Exception e) {
+            throw new RuntimeException("创建方法调用器失败：" + method, e);
+        }
+    }
+
+    /**
+     * 调用服务方法
+     *
+     * @param args 方法参数，无参方法可以为 null
+     * @return 方法返回值
+     * @throws Throwable 服务方法抛出的异常（不再包装为 InvocationTargetException）
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return methodHandle.invokeExact(args);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Class<?> getReturnType() {
+        return method.getReturnType();
+    }
+}
@@ -30,6 +30,7 @@ public interface Registry {
 
     /**
      * 服务发现(获取某服务的所有节点，消费端)
+     * 返回的列表不可修改，内置注册中心返回带版本号的 {@link ServiceSnapshot}
      * @param serviceKey
      * @return
      */
@@ -47,8 +48,9 @@ public interface Registry {
 
     /**
      * 监听（消费端）
+     * 监听服务下所有节点的变化，逐个节点更新本地服务缓存
      *
-     * @param serviceNodeKey
+     * @param serviceKey
      */
-    void watch(String serviceNodeKey);
+    void watch(String serviceKey);
 }
@@ -1,42 +1,109 @@
 package com.qimoju.jurpc.registry;
 
+import com.qimoju.jurpc.loadbalancer.ServiceNodeStats;
 import com.qimoju.jurpc.model.ServiceMetaInfo;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 注册中心服务本地缓存
+ * 按服务键保存节点快照，监听到单个节点变化时只更新对应服务的快照；节点下线时一并移除其调用统计
  */
 public class RegistryServiceCache {
 
     /**
-     * 服务缓存
+     * 服务缓存：服务键 => 节点快照
      */
-    List<ServiceMetaInfo> serviceCache;
+    private final Map<String, ServiceSnapshot> serviceCache = new ConcurrentHashMap<>();
 
     /**
      * 写缓存
      *
+     * @param serviceKey
      * @param newServiceCache
-     * @return
+     * @return 写入的快照
      */
-    void writeCache(List<ServiceMetaInfo> newServiceCache) {
-        this.serviceCache = newServiceCache;
+    ServiceSnapshot writeCache(String serviceKey, List<ServiceMetaInfo> newServiceCache) {
+        ServiceSnapshot serviceSnapshot = ServiceSnapshot.of(serviceKey, newServiceCache);
+        ServiceSnapshot oldServiceSnapshot = serviceCache.put(serviceKey, serviceSnapshot);
+        removeNodeStats(oldServiceSnapshot, serviceSnapshot);
+        return serviceSnapshot;
     }
 
     /**
      * 读缓存
      *
-     * @return
+     * @param serviceKey
+     * @return 未缓存时返回 null
      */
-    List<ServiceMetaInfo> readCache() {
-        return this.serviceCache;
+    ServiceSnapshot readCache(String serviceKey) {
+        return serviceCache.get(serviceKey);
+    }
+
+    /**
+     * 新增或更新一个节点，服务未缓存时忽略（下次服务发现时会全量查询）
+     *
+     * @param serviceKey
+     * @param serviceMetaInfo
+     */
+    void putNode(String serviceKey, ServiceMetaInfo serviceMetaInfo) {
+        serviceCache.computeIfPresent(serviceKey, (key, snapshot) -> snapshot.withNode(serviceMetaInfo));
+    }
+
+    /**
+     * 移除一个节点
+     *
+     * @param serviceKey
+     * @param serviceNodeKey
+     */
+    void removeNode(String serviceKey, String serviceNodeKey) {
+        serviceCache.computeIfPresent(serviceKey, (key, snapshot) -> snapshot.withoutNode(serviceNodeKey));
+        ServiceNodeStats.remove(serviceNodeKey);
+    }
+
+    /**
+     * 清空某个服务的缓存
+     *
+     * @param serviceKey
+     */
+    void clearCache(String serviceKey) {
+        removeNodeStats(serviceCache.remove(serviceKey), null);
     }
 
     /**
      * 清空缓存
      */
     void clearCache() {
-        this.serviceCache = null;
+        for (String serviceKey : serviceCache.keySet()) {
+            clearCache(serviceKey);
+        }
+    }
+
+    /**
+     * 移除已不在新快照中的节点的调用统计
+     *
+     * @param oldServiceSnapshot 旧快照，为 null 时忽略
+     * @param newServiceSnapshot 新快照，为 null 时移除旧快照中所有节点的统计
+     */
+    private static void removeNodeStats(ServiceSnapshot oldServiceSnapshot, ServiceSnapshot newServiceSnapshot) {
+        if (oldServiceSnapshot == null) {
+            return;
+        }
+        Set<String> currentNodeKeys = new HashSet<>();
+        if (newServiceSnapshot != null) {
+            for (ServiceMetaInfo serviceMetaInfo : newServiceSnapshot) {
+                currentNodeKeys.add(serviceMetaInfo.getServiceNodeKey());
+            }
+        }
+        for (ServiceMetaInfo serviceMetaInfo : oldServiceSnapshot) {
+            String serviceNodeKey = serviceMetaInfo.getServiceNodeKey();
+            if (!currentNodeKeys.contains(serviceNodeKey)) {
+                ServiceNodeStats.remove(serviceNodeKey);
+            }
+        }
     }
 }
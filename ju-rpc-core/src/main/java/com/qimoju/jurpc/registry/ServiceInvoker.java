@@ -0,0 +1,65 @@
+package com.qimoju.jurpc.registry;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务调用器
+ * 持有服务的单例实例，以及按方法名分组的方法调用器表（同名方法按参数类型区分重载）
+ */
+public class ServiceInvoker {
+
+    private static final Class<?>[] EMPTY_PARAMETER_TYPES = new Class<?>[0];
+
+    private final Object instance;
+
+    /**
+     * 方法名 => 同名方法的调用器
+     */
+    private final Map<String, MethodInvoker[]> methodInvokerMap;
+
+    ServiceInvoker(Object instance) {
+        this.instance = instance;
+        Map<String, List<MethodInvoker>> grouped = new HashMap<>();
+        for (Method method : instance.getClass().getMethods()) {
+            if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            grouped.computeIfAbsent(method.getName(), name -> new ArrayList<>())
+                    .add(new MethodInvoker(instance, method));
+        }
+        Map<String, MethodInvoker[]> invokerMap = new HashMap<>();
+        grouped.forEach((name, invokers) -> invokerMap.put(name, invokers.toArray(new MethodInvoker[0])));
+        this.methodInvokerMap = invokerMap;
+    }
+
+    /**
+     * 获取方法调用器
+     *
+     * @param methodName 方法名
+     * @param parameterTypes 参数类型
+     * @return
+     * @throws NoSuchMethodException 服务没有该方法
+     */
+    public MethodInvoker getMethodInvoker(String methodName, Class<?>[] parameterTypes) throws NoSuchMethodException {
+        MethodInvoker[] invokers = methodInvokerMap.get(methodName);
+        if (invokers != null) {
+            Class<?>[] types = parameterTypes == null ? EMPTY_PARAMETER_TYPES : parameterTypes;
+            for (MethodInvoker invoker : invokers) {
+                if (Arrays.equals(invoker.parameterTypes, types)) {
+                    return invoker;
+                }
+            }
+        }
+        throw new NoSuchMethodException(instance.getClass().getName() + "." + methodName + Arrays.toString(parameterTypes));
+    }
+
+    public Object getInstance() {
+        return instance;
+    }
+}
@@ -0,0 +1,105 @@
+package com.qimoju.jurpc.registry;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务节点快照
+ * 某个服务在某一时刻的全部节点，不可修改；节点变化时生成新的快照，版本号随之递增。
+ * 负载均衡器可以根据版本号判断节点是否变化，只在变化时重建内部结构
+ */
+public final class ServiceSnapshot extends AbstractList<ServiceMetaInfo> implements RandomAccess {
+
+    /**
+     * 版本号生成器，所有服务共用，保证新快照的版本号总是大于旧快照
+     */
+    private static final AtomicLong VERSION_GENERATOR = new AtomicLong();
+
+    private final String serviceKey;
+
+    private final long version;
+
+    private final ServiceMetaInfo[] nodes;
+
+    private ServiceSnapshot(String serviceKey, ServiceMetaInfo[] nodes) {
+        this.serviceKey = serviceKey;
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.nodes = nodes;
+    }
+
+    /**
+     * 根据节点列表创建快照
+     *
+     * @param serviceKey 服务键
+     * @param serviceMetaInfoList 节点列表
+     * @return
+     */
+    public static ServiceSnapshot of(String serviceKey, List<ServiceMetaInfo> serviceMetaInfoList) {
+        return new ServiceSnapshot(serviceKey, serviceMetaInfoList.toArray(new ServiceMetaInfo[0]));
+    }
+
+    /**
+     * 新增或更新一个节点（按节点键匹配）
+     *
+     * @param serviceMetaInfo 节点信息
+     * @return 新快照，节点信息没有变化时返回当前快照
+     */
+    public ServiceSnapshot withNode(ServiceMetaInfo serviceMetaInfo) {
+        String nodeKey = serviceMetaInfo.getServiceNodeKey();
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].getServiceNodeKey().equals(nodeKey)) {
+                if (Objects.equals(nodes[i], serviceMetaInfo)) {
+                    return this;
+                }
+                ServiceMetaInfo[] newNodes = nodes.clone();
+                newNodes[i] = serviceMetaInfo;
+                return new ServiceSnapshot(serviceKey, newNodes);
+            }
+        }
+        ServiceMetaInfo[] newNodes = Arrays.copyOf(nodes, nodes.length + 1);
+        newNodes[nodes.length] = serviceMetaInfo;
+        return new ServiceSnapshot(serviceKey, newNodes);
+    }
+
+    /**
+     * 移除一个节点
+     *
+     * @param serviceNodeKey 节点键
+     * @return 新快照，节点不存在时返回当前快照
+     */
+    public ServiceSnapshot withoutNode(String serviceNodeKey) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].getServiceNodeKey().equals(serviceNodeKey)) {
+                ServiceMetaInfo[] newNodes = new ServiceMetaInfo[nodes.length - 1];
+                System.arraycopy(nodes, 0, newNodes, 0, i);
+                System.arraycopy(nodes, i + 1, newNodes, i, nodes.length - i - 1);
+                return new ServiceSnapshot(serviceKey, newNodes);
+            }
+        }
+        return this;
+    }
+
+    public String getServiceKey() {
+        return serviceKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public ServiceMetaInfo get(int index) {
+        return nodes[index];
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+}
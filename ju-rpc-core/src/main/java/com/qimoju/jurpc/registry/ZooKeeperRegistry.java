@@ -6,6 +6,7 @@ import com.qimoju.jurpc.model.ServiceMetaInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.CuratorCache;
 import org.apache.curator.framework.recipes.cache.CuratorCacheListener;
 import org.apache.curator.retry.ExponentialBackoffRetry;
@@ -13,6 +14,7 @@ import org.apache.curator.x.discovery.ServiceDiscovery;
 import org.apache.curator.x.discovery.ServiceDiscoveryBuilder;
 import org.apache.curator.x.discovery.ServiceInstance;
 import org.apache.curator.x.discovery.details.JsonInstanceSerializer;
+import org.apache.curator.utils.ZKPaths;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -34,6 +36,11 @@ public class ZooKeeperRegistry implements Registry {
 
     private ServiceDiscovery<ServiceMetaInfo> serviceDiscovery;
 
+    /**
+     * 服务实例序列化器，监听到节点变化时用于解析节点数据
+     */
+    private final JsonInstanceSerializer<ServiceMetaInfo> instanceSerializer = new JsonInstanceSerializer<>(ServiceMetaInfo.class);
+
     /**
      * 本机注册的节点 key 集合（用于维护续期）
      */
@@ -45,7 +52,7 @@ public class ZooKeeperRegistry implements Registry {
     private final RegistryServiceCache registryServiceCache = new RegistryServiceCache();
 
     /**
-     * 正在监听的 key 集合
+     * 正在监听的服务路径集合
      */
     private final Set<String> watchingKeySet = new ConcurrentHashSet<>();
 
@@ -68,7 +75,7 @@ public class ZooKeeperRegistry implements Registry {
         serviceDiscovery = ServiceDiscoveryBuilder.builder(ServiceMetaInfo.class)
                 .client(client)
                 .basePath(ZK_ROOT_PATH)
-                .serializer(new JsonInstanceSerializer<>(ServiceMetaInfo.class))
+                .serializer(instanceSerializer)
                 .build();
 
         try {
@@ -105,9 +112,9 @@ public class ZooKeeperRegistry implements Registry {
     @Override
     public List<ServiceMetaInfo> serviceDiscovery(String serviceKey) {
         // 优先从缓存获取服务
-        List<ServiceMetaInfo> cachedServiceMetaInfoList = registryServiceCache.readCache();
-        if (cachedServiceMetaInfoList != null) {
-            return cachedServiceMetaInfoList;
+        ServiceSnapshot cachedServiceSnapshot = registryServiceCache.readCache(serviceKey);
+        if (cachedServiceSnapshot != null) {
+            return cachedServiceSnapshot;
         }
 
         try {
@@ -119,9 +126,10 @@ public class ZooKeeperRegistry implements Registry {
                     .map(ServiceInstance::getPayload)
                     .collect(Collectors.toList());
 
-            // 写入服务缓存
-            registryServiceCache.writeCache(serviceMetaInfoList);
-            return serviceMetaInfoList;
+            // 写入服务缓存，之后通过监听逐个节点更新
+            ServiceSnapshot serviceSnapshot = registryServiceCache.writeCache(serviceKey, serviceMetaInfoList);
+            watch(serviceKey);
+            return serviceSnapshot;
         } catch (Exception e) {
             throw new RuntimeException("获取服务列表失败", e);
         }
@@ -134,23 +142,34 @@ public class ZooKeeperRegistry implements Registry {
 
     /**
      * 监听（消费端）
+     * 监听服务路径下的子节点（每个子节点是一个服务实例），逐个节点更新服务缓存
      *
-     * @param serviceNodeKey 服务节点 key
+     * @param serviceKey 服务键
      */
     @Override
-    public void watch(String serviceNodeKey) {
-        String watchKey = ZK_ROOT_PATH + "/" + serviceNodeKey;
-        boolean newWatch = watchingKeySet.add(watchKey);
+    public void watch(String serviceKey) {
+        String watchPath = ZK_ROOT_PATH + "/" + serviceKey;
+        boolean newWatch = watchingKeySet.add(watchPath);
         if (newWatch) {
-            CuratorCache curatorCache = CuratorCache.build(client, watchKey);
-            curatorCache.start();
+            CuratorCache curatorCache = CuratorCache.build(client, watchPath);
             curatorCache.listenable().addListener(
                     CuratorCacheListener
                             .builder()
-                            .forDeletes(childData -> registryServiceCache.clearCache())
-                            .forChanges(((oldNode, node) -> registryServiceCache.clearCache()))
+                            .forCreatesAndChanges((oldNode, node) -> {
+                                ServiceMetaInfo serviceMetaInfo = parseServiceNode(watchPath, node);
+                                if (serviceMetaInfo != null) {
+                                    registryServiceCache.putNode(serviceKey, serviceMetaInfo);
+                                }
+                            })
+                            .forDeletes(childData -> {
+                                if (isServiceNode(watchPath, childData)) {
+                                    String instanceId = ZKPaths.getNodeFromPath(childData.getPath());
+                                    registryServiceCache.removeNode(serviceKey, serviceKey + "/" + instanceId);
+                                }
+                            })
                             .build()
             );
+            curatorCache.start();
         }
     }
 
@@ -172,6 +191,30 @@ public class ZooKeeperRegistry implements Registry {
         }
     }
 
+    /**
+     * 是否为服务路径下的实例节点（不包括服务路径本身）
+     */
+    private static boolean isServiceNode(String watchPath, ChildData childData) {
+        return watchPath.equals(ZKPaths.getPathAndNode(childData.getPath()).getPath());
+    }
+
+    /**
+     * 解析实例节点中的服务信息
+     *
+     * @return 不是实例节点或解析失败时返回 null
+     */
+    private ServiceMetaInfo parseServiceNode(String watchPath, ChildData childData) {
+        if (!isServiceNode(watchPath, childData) || childData.getData() == null) {
+            return null;
+        }
+        try {
+            return instanceSerializer.deserialize(childData.getData()).getPayload();
+        } catch (Exception e) {
+            log.error("解析服务节点失败：{}", childData.getPath(), e);
+            return null;
+        }
+    }
+
     private ServiceInstance<ServiceMetaInfo> buildServiceInstance(ServiceMetaInfo serviceMetaInfo) {
         String serviceAddress = serviceMetaInfo.getServiceHost() + ":" + serviceMetaInfo.getServicePort();
         try {
@@ -0,0 +1,22 @@
+package com.qimoju.jurpc.router;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由器接口
+ * 在负载均衡之前执行，从服务发现得到的节点列表中筛选出本次调用可选的节点，可与任意负载均衡器组合
+ */
+public interface Router {
+
+    /**
+     * 筛选节点
+     *
+     * @param requestParams 负载均衡参数
+     * @param serviceMetaInfoList 服务发现得到的节点列表
+     * @return 可选的节点列表，不为空；无需筛选时直接返回原列表
+     */
+    List<ServiceMetaInfo> route(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList);
+}
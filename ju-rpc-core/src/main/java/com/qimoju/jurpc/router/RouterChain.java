@@ -0,0 +1,27 @@
+package com.qimoju.jurpc.router;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由器链，按顺序执行多个路由器，上一个的结果作为下一个的输入
+ */
+public class RouterChain implements Router {
+
+    private final Router[] routers;
+
+    public RouterChain(List<Router> routers) {
+        this.routers = routers.toArray(new Router[0]);
+    }
+
+    @Override
+    public List<ServiceMetaInfo> route(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        List<ServiceMetaInfo> result = serviceMetaInfoList;
+        for (Router router : routers) {
+            result = router.route(requestParams, result);
+        }
+        return result;
+    }
+}
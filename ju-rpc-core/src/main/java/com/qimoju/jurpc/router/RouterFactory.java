@@ -0,0 +1,54 @@
+package com.qimoju.jurpc.router;
+
+import cn.hutool.core.util.StrUtil;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.spi.SpiLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 路由器工厂（工厂模式，用于获取路由器对象）
+ *
+ */
+public class RouterFactory {
+
+    static {
+        SpiLoader.load(Router.class);
+    }
+
+    /**
+     * 不做筛选的路由器
+     */
+    private static final Router EMPTY_ROUTER = new RouterChain(Collections.emptyList());
+
+    /**
+     * 获取实例
+     *
+     * @param key
+     * @return
+     */
+    public static Router getInstance(String key) {
+        return SpiLoader.getInstance(Router.class, key);
+    }
+
+    /**
+     * 按配置获取路由器，多个键用逗号分隔，按顺序组成路由器链
+     * 依赖配置的路由器（如区域、子集路由）按传入的配置创建，不读取全局配置
+     *
+     * @param rpcConfig 配置，路由器键为空时不做筛选
+     * @return
+     */
+    public static Router getRouter(RpcConfig rpcConfig) {
+        List<Router> routers = new ArrayList<>();
+        for (String key : StrUtil.splitTrim(rpcConfig.getRouter(), ',')) {
+            routers.add(SpiLoader.getInstance(Router.class, key, rpcConfig));
+        }
+        if (routers.isEmpty()) {
+            return EMPTY_ROUTER;
+        }
+        return routers.size() == 1 ? routers.get(0) : new RouterChain(routers);
+    }
+
+}
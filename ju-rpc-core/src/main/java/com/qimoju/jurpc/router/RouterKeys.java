@@ -0,0 +1,19 @@
+package com.qimoju.jurpc.router;
+
+/**
+ * 路由器键名常量
+ *
+ */
+public interface RouterKeys {
+
+    /**
+     * 同区域优先
+     */
+    String ZONE = "zone";
+
+    /**
+     * 子集（每个消费端只使用固定数量的节点）
+     */
+    String SUBSET = "subset";
+
+}
@@ -0,0 +1,102 @@
+package com.qimoju.jurpc.router;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.HashUtil;
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.util.StrUtil;
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.loadbalancer.VersionedStateCache;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 子集路由器
+ * 服务节点很多时，每个消费端只使用其中固定数量的节点，减少客户端与服务端之间的长连接总数。
+ * 使用最高随机权重哈希（rendezvous hashing）：以消费端标识和节点键计算每个节点的分数，取分数最高的若干个节点。
+ * 同一消费端每次得到的子集相同；不同消费端的子集近似均匀地分布在所有节点上；
+ * 节点上下线时只影响分数排在子集边界附近的节点，其余节点不变。筛选结果按节点快照缓存
+ */
+public class SubsetRouter implements Router {
+
+    /**
+     * 消费端标识
+     */
+    private final String clientId;
+
+    /**
+     * 子集大小
+     */
+    private final int subsetSize;
+
+    /**
+     * 筛选结果（按服务缓存）
+     */
+    private final VersionedStateCache<List<ServiceMetaInfo>> routeCache = new VersionedStateCache<>(this::doRoute);
+
+    public SubsetRouter() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public SubsetRouter(RpcConfig rpcConfig) {
+        this(rpcConfig.getClientId(), rpcConfig.getSubsetSize());
+    }
+
+    /**
+     * @param clientId 消费端标识，为空时使用本机地址和进程号
+     * @param subsetSize 子集大小
+     */
+    public SubsetRouter(String clientId, int subsetSize) {
+        this.clientId = StrUtil.isBlank(clientId)
+                ? NetUtil.getLocalhostStr() + ":" + RuntimeUtil.getPid()
+                : clientId;
+        this.subsetSize = subsetSize;
+    }
+
+    @Override
+    public List<ServiceMetaInfo> route(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (subsetSize <= 0 || serviceMetaInfoList.size() <= subsetSize) {
+            return serviceMetaInfoList;
+        }
+        return routeCache.get(serviceMetaInfoList);
+    }
+
+    private List<ServiceMetaInfo> doRoute(List<ServiceMetaInfo> serviceMetaInfoList) {
+        int size = serviceMetaInfoList.size();
+        List<ScoredNode> scoredNodes = new ArrayList<>(size);
+        for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+            scoredNodes.add(new ScoredNode(serviceMetaInfo, getScore(serviceMetaInfo)));
+        }
+        scoredNodes.sort(Comparator.comparingLong((ScoredNode scoredNode) -> scoredNode.score).reversed());
+
+        List<ServiceMetaInfo> subset = new ArrayList<>(subsetSize);
+        for (int i = 0; i < subsetSize; i++) {
+            subset.add(scoredNodes.get(i).serviceMetaInfo);
+        }
+        // 筛选结果同样是快照，后续的负载均衡器可以按快照缓存状态
+        return ServiceSnapshot.of(subset.get(0).getServiceKey(), subset);
+    }
+
+    private long getScore(ServiceMetaInfo serviceMetaInfo) {
+        String key = clientId + "#" + serviceMetaInfo.getServiceNodeKey();
+        return HashUtil.murmur64(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class ScoredNode {
+
+        private final ServiceMetaInfo serviceMetaInfo;
+
+        private final long score;
+
+        private ScoredNode(ServiceMetaInfo serviceMetaInfo, long score) {
+            this.serviceMetaInfo = serviceMetaInfo;
+            this.score = score;
+        }
+    }
+}
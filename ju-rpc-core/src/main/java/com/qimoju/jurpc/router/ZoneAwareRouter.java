@@ -0,0 +1,79 @@
+package com.qimoju.jurpc.router;
+
+import cn.hutool.core.util.StrUtil;
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.loadbalancer.VersionedStateCache;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 同区域优先路由器
+ * 优先选择与消费端在同一区域（机架、可用区）的节点，避免跨区域调用的延迟和流量费用；
+ * 同区域节点数低于每个区域平均节点数的一定比例时，认为本区域容量不足，不做筛选（溢出到所有区域）。
+ * 消费端没有配置区域时不做筛选。筛选结果按节点快照缓存
+ */
+public class ZoneAwareRouter implements Router {
+
+    /**
+     * 消费端所在区域
+     */
+    private final String zone;
+
+    /**
+     * 同区域节点数 / 每个区域平均节点数低于该比例时溢出到所有区域
+     */
+    private final double spilloverRatio;
+
+    /**
+     * 筛选结果（按服务缓存）
+     */
+    private final VersionedStateCache<List<ServiceMetaInfo>> routeCache = new VersionedStateCache<>(this::doRoute);
+
+    public ZoneAwareRouter() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public ZoneAwareRouter(RpcConfig rpcConfig) {
+        this(rpcConfig.getZone(), rpcConfig.getZoneSpilloverRatio());
+    }
+
+    public ZoneAwareRouter(String zone, double spilloverRatio) {
+        this.zone = zone;
+        this.spilloverRatio = spilloverRatio;
+    }
+
+    @Override
+    public List<ServiceMetaInfo> route(Map<String, Object> requestParams, List<ServiceMetaInfo> serviceMetaInfoList) {
+        if (StrUtil.isBlank(zone) || serviceMetaInfoList.size() <= 1) {
+            return serviceMetaInfoList;
+        }
+        return routeCache.get(serviceMetaInfoList);
+    }
+
+    private List<ServiceMetaInfo> doRoute(List<ServiceMetaInfo> serviceMetaInfoList) {
+        List<ServiceMetaInfo> localList = serviceMetaInfoList.stream()
+                .filter(serviceMetaInfo -> zone.equals(serviceMetaInfo.getZone()))
+                .collect(Collectors.toList());
+        if (localList.isEmpty() || localList.size() == serviceMetaInfoList.size()) {
+            return serviceMetaInfoList;
+        }
+        // 没有区域标签的节点算作一个区域
+        Set<String> zones = new HashSet<>();
+        for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+            zones.add(serviceMetaInfo.getZone());
+        }
+        double averageNodesPerZone = (double) serviceMetaInfoList.size() / zones.size();
+        if (localList.size() < averageNodesPerZone * spilloverRatio) {
+            return serviceMetaInfoList;
+        }
+        // 筛选结果同样是快照，后续的负载均衡器可以按快照缓存状态
+        return ServiceSnapshot.of(localList.get(0).getServiceKey(), localList);
+    }
+}
@@ -6,6 +6,8 @@ import com.caucho.hessian.io.HessianOutput;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Hessian 序列化器
@@ -54,5 +56,32 @@ public class HessianSerializer implements Serializer {
         // 这里使用了泛型转换，将解析后的对象强制转换为指定的类型
         return (T) hi.readObject(tClass);
     }
-}
 
+    /**
+     * 序列化对象到输出流（编码时直接写入消息缓冲区）
+     *
+     * @param object 待序列化的对象
+     * @param out 输出流，由调用方关闭
+     * @throws IOException 如果序列化过程中发生I/O错误
+     */
+    @Override
+    public <T> void serialize(T object, OutputStream out) throws IOException {
+        HessianOutput ho = new HessianOutput(out);
+        ho.writeObject(object);
+        ho.flush();
+    }
+
+    /**
+     * 从输入流反序列化（解码时直接读取接收到的消息缓冲区）
+     *
+     * @param in 输入流，由调用方关闭
+     * @param tClass 目标类类型
+     * @return 反序列化后的对象实例
+     * @throws IOException 如果反序列化过程中发生I/O错误
+     */
+    @Override
+    public <T> T deserialize(InputStream in, Class<T> tClass) throws IOException {
+        HessianInput hi = new HessianInput(in);
+        return (T) hi.readObject(tClass);
+    }
+}
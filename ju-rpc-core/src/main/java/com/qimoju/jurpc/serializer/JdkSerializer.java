@@ -60,4 +60,37 @@ public class JdkSerializer implements Serializer{
             objectInputStream.close();
         }
     }
+
+    /**
+     * 序列化对象到输出流（编码时直接写入消息缓冲区）
+     *
+     * @param obj 待序列化的对象，必须实现Serializable接口
+     * @param out 输出流，由调用方关闭
+     * @throws IOException 如果序列化过程中发生I/O错误
+     */
+    @Override
+    public <T> void serialize(T obj, OutputStream out) throws IOException {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(out);
+        objectOutputStream.writeObject(obj);
+        // 只刷新不关闭，输出流由调用方关闭
+        objectOutputStream.flush();
+    }
+
+    /**
+     * 从输入流反序列化（解码时直接读取接收到的消息缓冲区）
+     *
+     * @param in 输入流，由调用方关闭
+     * @param clazz 目标对象的类类型
+     * @return 反序列化后的对象实例
+     * @throws IOException 如果在反序列化过程中发生I/O错误
+     */
+    @Override
+    public <T> T deserialize(InputStream in, Class<T> clazz) throws IOException {
+        ObjectInputStream objectInputStream = new ObjectInputStream(in);
+        try {
+            return (T) objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -1,25 +1,47 @@
 package com.qimoju.jurpc.serializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Json 序列化器
  *
  */
 public class JsonSerializer implements Serializer {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /**
+     * 读写流时不自动关闭流，流由调用方（编解码器）关闭
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
 
     @Override
     public <T> byte[] serialize(T obj) throws IOException {
         return OBJECT_MAPPER.writeValueAsBytes(obj);
     }
 
+    @Override
+    public <T> void serialize(T obj, OutputStream out) throws IOException {
+        OBJECT_MAPPER.writeValue(out, obj);
+    }
+
     @Override
     public <T> T deserialize(byte[] bytes, Class<T> classType) throws IOException {
-        T obj = OBJECT_MAPPER.readValue(bytes, classType);
+        return handleObject(OBJECT_MAPPER.readValue(bytes, classType), classType);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream in, Class<T> classType) throws IOException {
+        return handleObject(OBJECT_MAPPER.readValue(in, classType), classType);
+    }
+
+    private <T> T handleObject(T obj, Class<T> classType) throws IOException {
         if (obj instanceof RpcRequest) {
             return handleRequest((RpcRequest) obj, classType);
         }
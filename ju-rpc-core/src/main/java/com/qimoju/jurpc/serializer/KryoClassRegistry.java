@@ -0,0 +1,203 @@
+package com.qimoju.jurpc.serializer;
+
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.HashUtil;
+import cn.hutool.core.util.StrUtil;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.model.ServerLoadReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kryo 类注册表
+ * 根据配置的类列表（RpcConfig 的 kryoRegistrationClasses）计算 Kryo 序列化器注册模式下要注册的类和类 id，
+ * 列表中的服务接口展开为方法参数和返回值中可达的类（包括泛型参数和字段类型），注册的类序列化时只写类 id，不再写完整类名。
+ * 注册模式需显式开启：注册的类只取决于配置的列表，服务端和消费端必须配置完全相同的列表；
+ * 两端列表不同（如各自只列出自己提供或调用的服务接口）时，一端以 id 写出的类另一端无法识别
+ */
+@Slf4j
+public class KryoClassRegistry {
+
+    /**
+     * 类 id 起始值，之前的 id 留给 Kryo 默认注册的基本类型（及其包装类型）和 String
+     */
+    private static final int ID_OFFSET = 100;
+
+    /**
+     * 类名哈希取值范围（id 变长编码后不超过 4 个字节）
+     */
+    private static final int ID_MASK = 0x7FFFFFF;
+
+    /**
+     * 开启注册模式时始终注册的类：协议消息体和调用中常见的类
+     */
+    private static final List<Class<?>> BUILTIN_CLASSES = List.of(
+            RpcRequest.class, RpcResponse.class, ServerLoadReport.class, Class.class, Class[].class, Object[].class,
+            ArrayList.class, HashMap.class, LinkedHashMap.class, HashSet.class, LinkedHashSet.class);
+
+    /**
+     * 解析配置的类列表
+     *
+     * @param classNames 类名，多个用逗号分隔
+     * @return
+     */
+    public static List<Class<?>> parseClasses(String classNames) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : StrUtil.splitTrim(classNames, ',')) {
+            try {
+                classes.add(Class.forName(className, false, Thread.currentThread().getContextClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Kryo 注册的类不存在：" + className, e);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 计算要注册的类和类 id
+     * 类 id 由类名哈希得到；按类名顺序分配，哈希冲突时类名靠后的类不注册（仍写完整类名），
+     * 结果只取决于类的集合，与配置中的顺序无关
+     *
+     * @param classes 配置的类（服务接口或普通类），为空时不注册任何类
+     * @return
+     */
+    static List<Registration> resolve(Collection<Class<?>> classes) {
+        if (classes == null || classes.isEmpty()) {
+            return List.of();
+        }
+        Set<Class<?>> reachableClasses = new HashSet<>(BUILTIN_CLASSES);
+        for (Class<?> clazz : classes) {
+            if (clazz.isInterface()) {
+                collectInterface(clazz, reachableClasses);
+            } else {
+                collectClass(clazz, reachableClasses);
+            }
+        }
+        List<Class<?>> sortedClasses = new ArrayList<>(reachableClasses);
+        sortedClasses.sort(Comparator.comparing(Class::getName));
+        Map<Integer, Class<?>> idClassMap = new HashMap<>();
+        List<Registration> registrations = new ArrayList<>(sortedClasses.size());
+        for (Class<?> clazz : sortedClasses) {
+            int id = ID_OFFSET + (HashUtil.murmur32(clazz.getName().getBytes(StandardCharsets.UTF_8)) & ID_MASK);
+            Class<?> existing = idClassMap.putIfAbsent(id, clazz);
+            if (existing == null) {
+                registrations.add(new Registration(clazz, id));
+            } else {
+                log.warn("Kryo 类 id 冲突，不注册 {}（与 {} 相同）", clazz.getName(), existing.getName());
+            }
+        }
+        return registrations;
+    }
+
+    /**
+     * 收集服务接口中可达的类：方法的参数类型、返回值类型（包括泛型参数），以及这些类的字段类型
+     *
+     * @param serviceInterface 服务接口
+     * @param result 收集结果
+     */
+    private static void collectInterface(Class<?> serviceInterface, Set<Class<?>> result) {
+        for (Method method : serviceInterface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            for (Type parameterType : method.getGenericParameterTypes()) {
+                collect(parameterType, result);
+            }
+            collect(method.getGenericReturnType(), result);
+        }
+    }
+
+    /**
+     * 收集类型中可达的需要注册的类
+     *
+     * @param type 类型
+     * @param result 收集结果
+     */
+    private static void collect(Type type, Set<Class<?>> result) {
+        if (type instanceof ParameterizedType) {
+            collect(((ParameterizedType) type).getRawType(), result);
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                collect(argument, result);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collect(((GenericArrayType) type).getGenericComponentType(), result);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                collect(bound, result);
+            }
+        } else if (type instanceof TypeVariable) {
+            for (Type bound : ((TypeVariable<?>) type).getBounds()) {
+                collect(bound, result);
+            }
+        } else if (type instanceof Class) {
+            collectClass((Class<?>) type, result);
+        }
+    }
+
+    private static void collectClass(Class<?> clazz, Set<Class<?>> result) {
+        if (clazz.isArray()) {
+            if (result.add(clazz)) {
+                collectClass(clazz.getComponentType(), result);
+            }
+            return;
+        }
+        // Kryo 默认注册的类型、接口和抽象类（实际写出的是运行时的类）不注册
+        if (ClassUtil.isBasicType(clazz) || clazz == String.class || clazz == Object.class
+                || clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            return;
+        }
+        if (!result.add(clazz) || isJdkClass(clazz)) {
+            return;
+        }
+        // 字段中的类型
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                collect(field.getGenericType(), result);
+            }
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    /**
+     * 类和类 id
+     */
+    static class Registration {
+
+        final Class<?> type;
+
+        final int id;
+
+        Registration(Class<?> type, int id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
@@ -3,24 +3,58 @@ package com.qimoju.jurpc.serializer;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
+import com.qimoju.jurpc.RpcApplication;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Kryo 序列化器
- *
+ * kryo 线程不安全，从有界池中借用 Kryo 实例（连同可复用的 Output / Input 缓冲区），用完归还；
+ * 配置了注册的类时（见 {@link KryoClassRegistry}），这些类序列化时只写类 id 不写完整类名，服务端和消费端的配置必须相同
  */
 public class KryoSerializer implements Serializer {
+
+    /**
+     * 池中保留的 Kryo 实例数上限，并发借用超出时临时创建，归还时丢弃
+     */
+    private static final int POOL_CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Output / Input 缓冲区初始大小
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * 序列化为字节数组后保留的输出缓冲区上限，超过则换回初始大小，避免池中实例长期占用大块内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 预先注册的类，为空时不注册
+     */
+    private final List<KryoClassRegistry.Registration> registrations;
+
+    private final Pool<KryoHolder> pool = new Pool<KryoHolder>(true, false, POOL_CAPACITY) {
+        @Override
+        protected KryoHolder create() {
+            return new KryoHolder(registrations);
+        }
+    };
+
+    public KryoSerializer() {
+        this(KryoClassRegistry.parseClasses(RpcApplication.getRpcConfig().getKryoRegistrationClasses()));
+    }
+
     /**
-     * kryo 线程不安全，使用 ThreadLocal 保证每个线程只有一个 Kryo
+     * @param registrationClasses 预先注册的类，服务接口展开为其中可达的类；为空时不注册
      */
-    private static final ThreadLocal<Kryo> KRYO_THREAD_LOCAL = ThreadLocal.withInitial(() -> {
-        Kryo kryo = new Kryo();
-        // 设置动态动态序列化和反序列化类，不提前注册所有类（可能有安全问题）
-        kryo.setRegistrationRequired(false);
-        return kryo;
-    });
+    public KryoSerializer(Collection<Class<?>> registrationClasses) {
+        this.registrations = KryoClassRegistry.resolve(registrationClasses);
+    }
 
     /**
      * 序列化对象为字节数组
@@ -33,16 +67,18 @@ public class KryoSerializer implements Serializer {
      */
     @Override
     public <T> byte[] serialize(T obj) {
-        // 创建一个字节数组输出流，用于存储序列化后的字节数据
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        // 创建一个Output对象，封装字节数组输出流，用于输出序列化后的数据
-        Output output = new Output(byteArrayOutputStream);
-        // 使用Kryo实例（通过KRYO_THREAD_LOCAL线程局部变量获取）将对象写入到Output中
-        KRYO_THREAD_LOCAL.get().writeObject(output, obj);
-        // 关闭Output流，释放资源
-        output.close();
-        // 将字节数组输出流中的数据转换为字节数组并返回
-        return byteArrayOutputStream.toByteArray();
+        KryoHolder holder = borrow();
+        Output output = holder.output;
+        try {
+            output.reset();
+            holder.kryo.writeObject(output, obj);
+            return output.toBytes();
+        } finally {
+            if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+                output.setBuffer(new byte[BUFFER_SIZE], -1);
+            }
+            pool.free(holder);
+        }
     }
 
     /**
@@ -56,15 +92,82 @@ public class KryoSerializer implements Serializer {
      */
     @Override
     public <T> T deserialize(byte[] bytes, Class<T> classType) {
-        // 创建一个ByteArrayInputStream，用于将字节数组转换为输入流
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bytes);
-        // 创建一个Kryo Input对象，用于读取输入流中的数据
-        Input input = new Input(byteArrayInputStream);
-        // 使用线程本地变量存储的Kryo实例进行对象读取，以避免多线程共享同一个Kryo实例导致的线程安全问题
-        T result = KRYO_THREAD_LOCAL.get().readObject(input, classType);
-        // 关闭Input对象，释放与之关联的资源
-        input.close();
-        // 返回反序列化后的对象实例
-        return result;
+        KryoHolder holder = borrow();
+        try {
+            // 直接读取字节数组，不复用池中 Input 的缓冲区（避免之后写入调用方的数组）
+            return holder.kryo.readObject(new Input(bytes), classType);
+        } finally {
+            pool.free(holder);
+        }
+    }
+
+    /**
+     * 序列化对象到输出流（编码时直接写入消息缓冲区）
+     *
+     * @param obj 待序列化的对象
+     * @param out 输出流，由调用方关闭
+     */
+    @Override
+    public <T> void serialize(T obj, OutputStream out) {
+        KryoHolder holder = borrow();
+        Output output = holder.output;
+        try {
+            output.setOutputStream(out);
+            holder.kryo.writeObject(output, obj);
+            // 只刷新不关闭，输出流由调用方关闭
+            output.flush();
+        } finally {
+            output.setOutputStream(null);
+            pool.free(holder);
+        }
+    }
+
+    /**
+     * 从输入流反序列化（解码时直接读取接收到的消息缓冲区）
+     *
+     * @param in 输入流，只包含一个消息体，由调用方关闭
+     * @param classType 目标类类型
+     * @return 反序列化后的对象实例
+     */
+    @Override
+    public <T> T deserialize(InputStream in, Class<T> classType) {
+        KryoHolder holder = borrow();
+        Input input = holder.input;
+        try {
+            input.setInputStream(in);
+            return holder.kryo.readObject(input, classType);
+        } finally {
+            input.setInputStream(null);
+            pool.free(holder);
+        }
+    }
+
+    /**
+     * 从池中借用 Kryo 实例
+     *
+     * @return
+     */
+    private KryoHolder borrow() {
+        return pool.obtain();
+    }
+
+    /**
+     * 池中的 Kryo 实例及其复用的缓冲区
+     */
+    private static class KryoHolder {
+
+        private final Kryo kryo = new Kryo();
+
+        private final Output output = new Output(BUFFER_SIZE, -1);
+
+        private final Input input = new Input(BUFFER_SIZE);
+
+        private KryoHolder(List<KryoClassRegistry.Registration> registrations) {
+            // 设置动态动态序列化和反序列化类，不提前注册所有类（可能有安全问题）；已注册的类写类 id
+            kryo.setRegistrationRequired(false);
+            for (KryoClassRegistry.Registration registration : registrations) {
+                kryo.register(registration.type, registration.id);
+            }
+        }
     }
 }
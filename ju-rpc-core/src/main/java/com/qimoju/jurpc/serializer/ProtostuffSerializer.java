@@ -0,0 +1,194 @@
+package com.qimoju.jurpc.serializer;
+
+import com.qimoju.jurpc.model.RpcResponse;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Protostuff 序列化器
+ * 运行时根据类的字段生成 schema（RuntimeSchema 按类缓存），编码为 protobuf 格式，不写字段名和类名，体积小、速度快。
+ * 声明为 Object / Object[] / Class 的字段（如 RpcRequest 的参数类型和参数值、RpcResponse 的响应数据）
+ * 按多态方式写出实际类型，反序列化后类型不变，不需要 JSON 序列化器那样的二次转换。
+ * 序列化的对象需为普通 Java 对象（协议消息体 RpcRequest / RpcResponse）；
+ * 异常的内部字段（堆栈、cause）在 JDK 16 以上无法通过反射还原，RpcResponse 中的异常单独按 JDK 序列化写出
+ */
+public class ProtostuffSerializer implements Serializer {
+
+    /**
+     * 编码缓冲区大小，写满后分段写出（写入输出流时）或追加新的分段
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    /**
+     * 每个线程复用一个编码缓冲区，用完清空
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER_THREAD_LOCAL =
+            ThreadLocal.withInitial(() -> LinkedBuffer.allocate(BUFFER_SIZE));
+
+    /**
+     * 异常的 JDK 序列化数据中除异常类之外允许出现的类：堆栈和 suppressed 列表（ArrayList 内部为 Object[]）
+     */
+    private static final Set<Class<?>> EXCEPTION_FIELD_CLASSES = Set.of(StackTraceElement.class, String.class,
+            ArrayList.class, Object[].class, Collections.emptyList().getClass());
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> byte[] serialize(T obj) throws IOException {
+        Object message = toMessage(obj);
+        Schema<Object> schema = RuntimeSchema.getSchema((Class<Object>) message.getClass());
+        LinkedBuffer buffer = BUFFER_THREAD_LOCAL.get();
+        try {
+            return ProtostuffIOUtil.toByteArray(message, schema, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void serialize(T obj, OutputStream out) throws IOException {
+        Object message = toMessage(obj);
+        Schema<Object> schema = RuntimeSchema.getSchema((Class<Object>) message.getClass());
+        LinkedBuffer buffer = BUFFER_THREAD_LOCAL.get();
+        try {
+            ProtostuffIOUtil.writeTo(out, message, schema, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(byte[] bytes, Class<T> classType) throws IOException {
+        Schema<Object> schema = RuntimeSchema.getSchema((Class<Object>) messageClass(classType));
+        Object message = schema.newMessage();
+        ProtostuffIOUtil.mergeFrom(bytes, message, schema);
+        return fromMessage(message, classType);
+    }
+
+    /**
+     * 从输入流反序列化，读到流结束为止（输入流只包含一个消息体）
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(InputStream in, Class<T> classType) throws IOException {
+        Schema<Object> schema = RuntimeSchema.getSchema((Class<Object>) messageClass(classType));
+        Object message = schema.newMessage();
+        LinkedBuffer buffer = BUFFER_THREAD_LOCAL.get();
+        try {
+            ProtostuffIOUtil.mergeFrom(in, message, schema, buffer);
+        } finally {
+            buffer.clear();
+        }
+        return fromMessage(message, classType);
+    }
+
+    /**
+     * 实际写出的消息：RpcResponse 换成 ResponseMessage，其他对象原样写出
+     */
+    private static Object toMessage(Object obj) throws IOException {
+        if (!(obj instanceof RpcResponse)) {
+            return obj;
+        }
+        RpcResponse rpcResponse = (RpcResponse) obj;
+        ResponseMessage responseMessage = new ResponseMessage();
+        // 复制一份不带异常的响应，不修改调用方的对象
+        responseMessage.response = new RpcResponse(rpcResponse.getData(), rpcResponse.getDataType(),
+                rpcResponse.getMessage(), null, rpcResponse.getLoadReport());
+        if (rpcResponse.getException() != null) {
+            responseMessage.exception = writeException(rpcResponse.getException());
+        }
+        return responseMessage;
+    }
+
+    private static Class<?> messageClass(Class<?> classType) {
+        return classType == RpcResponse.class ? ResponseMessage.class : classType;
+    }
+
+    private static <T> T fromMessage(Object message, Class<T> classType) throws IOException {
+        if (!(message instanceof ResponseMessage)) {
+            return classType.cast(message);
+        }
+        ResponseMessage responseMessage = (ResponseMessage) message;
+        RpcResponse rpcResponse = responseMessage.response != null ? responseMessage.response : new RpcResponse();
+        if (responseMessage.exception != null) {
+            rpcResponse.setException(readException(responseMessage.exception));
+        }
+        return classType.cast(rpcResponse);
+    }
+
+    /**
+     * 按 JDK 序列化写出异常；异常中有不能序列化的字段时，改为只带类名和消息的 RuntimeException
+     */
+    private static byte[] writeException(Exception exception) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(exception);
+        } catch (IOException e) {
+            RuntimeException replacement = new RuntimeException(exception.getClass().getName() + ": " + exception.getMessage());
+            replacement.setStackTrace(exception.getStackTrace());
+            outputStream.reset();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+                objectOutputStream.writeObject(replacement);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 读取 JDK 序列化的异常，只允许异常及其堆栈、suppressed 列表中出现的类，
+     * 其他类（可能被利用执行任意代码的反序列化链）直接拒绝，改为只带原因的 RuntimeException
+     */
+    private static Exception readException(byte[] bytes) throws IOException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objectInputStream.setObjectInputFilter(ProtostuffSerializer::checkExceptionClass);
+            return (Exception) objectInputStream.readObject();
+        } catch (InvalidClassException e) {
+            return new RuntimeException("远程异常包含不允许反序列化的类：" + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ObjectInputFilter.Status checkExceptionClass(ObjectInputFilter.FilterInfo filterInfo) {
+        Class<?> serialClass = filterInfo.serialClass();
+        if (serialClass == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        if (EXCEPTION_FIELD_CLASSES.contains(serialClass)) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        while (serialClass.isArray()) {
+            serialClass = serialClass.getComponentType();
+        }
+        if (Throwable.class.isAssignableFrom(serialClass) || serialClass == StackTraceElement.class) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    /**
+     * RpcResponse 的传输格式：响应（不带异常）和 JDK 序列化后的异常
+     */
+    static class ResponseMessage {
+
+        RpcResponse response;
+
+        byte[] exception;
+    }
+}
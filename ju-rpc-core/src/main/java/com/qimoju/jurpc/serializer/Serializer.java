@@ -1,6 +1,8 @@
 package com.qimoju.jurpc.serializer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * 序列化器接口
@@ -15,6 +17,20 @@ public interface Serializer {
      */
     <T> byte[] serialize(T obj) throws IOException;
 
+    /**
+     * 序列化到输出流
+     * 编码时输出流直接写入消息缓冲区，不经过中间的字节数组；
+     * 默认实现调用 {@link #serialize(Object)} 后写出（兼容只实现字节数组方法的自定义序列化器），内置序列化器均覆盖为直接写流
+     *
+     * @param obj
+     * @param out 输出流，由调用方关闭
+     * @param <T>
+     * @throws IOException
+     */
+    default <T> void serialize(T obj, OutputStream out) throws IOException {
+        out.write(serialize(obj));
+    }
+
     /**
      * 反序列化
      * @param data
@@ -25,4 +41,19 @@ public interface Serializer {
      *
      */
     <T> T deserialize(byte[] data, Class<T> clazz) throws IOException;
+
+    /**
+     * 从输入流反序列化
+     * 解码时输入流直接读取接收到的网络缓冲区，不复制消息体；
+     * 默认实现读出全部字节后调用 {@link #deserialize(byte[], Class)}（兼容只实现字节数组方法的自定义序列化器），内置序列化器均覆盖为直接读取流
+     *
+     * @param in 输入流，只包含一个消息体，由调用方关闭
+     * @param clazz
+     * @param <T>
+     * @return
+     * @throws IOException
+     */
+    default <T> T deserialize(InputStream in, Class<T> clazz) throws IOException {
+        return deserialize(in.readAllBytes(), clazz);
+    }
 }
@@ -5,4 +5,5 @@ public interface SerializerKeys {
     String KRYO = "kryo";
     String JSON = "json";
     String JDK = "jdk";
+    String PROTOSTUFF = "protostuff";
 }
@@ -5,6 +5,7 @@ import com.qimoju.jurpc.config.RpcConfig;
 import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
 import com.qimoju.jurpc.registry.LocalRegistry;
+import com.qimoju.jurpc.registry.MethodInvoker;
 import com.qimoju.jurpc.serializer.JdkSerializer;
 import com.qimoju.jurpc.serializer.Serializer;
 import com.qimoju.jurpc.serializer.SerializerFactory;
@@ -14,7 +15,6 @@ import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 
 public class HttpServerHandler implements Handler<HttpServerRequest> {
     @Override
@@ -54,18 +54,17 @@ public class HttpServerHandler implements Handler<HttpServerRequest> {
             }
 
             try {
-                // 获取要调用的服务实现类，通过反射调用
-                Class<?> implClass = LocalRegistry.get(rpcRequest.getServiceName());
-                Method method = implClass.getMethod(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
-                Object result = method.invoke(implClass.newInstance(), rpcRequest.getArgs());
+                // 获取要调用的服务方法的调用器（注册时预先创建）
+                MethodInvoker methodInvoker = LocalRegistry.getMethodInvoker(rpcRequest);
+                Object result = methodInvoker.invoke(rpcRequest.getArgs());
                 // 封装返回结果
                 rpcResponse.setData(result);
-                rpcResponse.setDataType(method.getReturnType());
+                rpcResponse.setDataType(methodInvoker.getReturnType());
                 rpcResponse.setMessage("ok");
-            } catch (Exception e) {
+            } catch (Throwable e) {
                 e.printStackTrace();
                 rpcResponse.setMessage("Error:" + e.getMessage());
-                rpcResponse.setException(e);
+                rpcResponse.setException(e instanceof Exception ? (Exception) e : new RuntimeException(e));
             }
             doResponse(request, rpcResponse, serializer);
         });
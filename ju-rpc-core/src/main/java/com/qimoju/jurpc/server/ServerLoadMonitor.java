@@ -0,0 +1,87 @@
+package com.qimoju.jurpc.server;
+
+import com.qimoju.jurpc.RpcRuntime;
+import com.qimoju.jurpc.model.ServerLoadReport;
+import com.qimoju.jurpc.server.executor.RequestExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务端负载监控
+ * 统计正在处理的请求数，读取请求执行器的排队数，定时采样进程 CPU 使用率，
+ * 生成附带在响应中的负载报告；生成报告只读取几个计数器，不做系统调用
+ */
+public class ServerLoadMonitor {
+
+    /**
+     * CPU 使用率采样间隔（毫秒）
+     */
+    private static final long CPU_SAMPLE_INTERVAL_MILLIS = 1000L;
+
+    private final RequestExecutor requestExecutor;
+
+    /**
+     * 正在处理（已解码、未写回响应）的请求数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+
+    /**
+     * 最近一次采样的 CPU 使用率（0 ~ 100），-1 表示无法获取
+     */
+    private volatile int cpuUsage = -1;
+
+    public ServerLoadMonitor(RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    /**
+     * 开始定时采样 CPU 使用率，框架关闭时停止
+     *
+     * @param rpcRuntime 运行时
+     */
+    public void start(RpcRuntime rpcRuntime) {
+        sampleCpuUsage();
+        long timerId = rpcRuntime.getVertx().setPeriodic(CPU_SAMPLE_INTERVAL_MILLIS, id -> sampleCpuUsage());
+        rpcRuntime.addShutdownHook(() -> rpcRuntime.getVertx().cancelTimer(timerId));
+    }
+
+    /**
+     * 开始处理一个请求
+     */
+    public void beginRequest() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 一个请求处理结束（响应即将写回）
+     */
+    public void endRequest() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 生成当前的负载报告
+     *
+     * @return
+     */
+    public ServerLoadReport report() {
+        return new ServerLoadReport(inFlight.get(), requestExecutor.getQueueSize(), cpuUsage);
+    }
+
+    private void sampleCpuUsage() {
+        double cpuLoad = -1;
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            cpuLoad = ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean).getProcessCpuLoad();
+        }
+        if (cpuLoad < 0) {
+            // 拿不到进程 CPU 使用率时，用系统平均负载估算
+            double loadAverage = operatingSystemMXBean.getSystemLoadAverage();
+            cpuLoad = loadAverage < 0 ? -1 : Math.min(loadAverage / operatingSystemMXBean.getAvailableProcessors(), 1);
+        }
+        cpuUsage = cpuLoad < 0 ? -1 : (int) Math.round(cpuLoad * 100);
+    }
+}
@@ -1,5 +1,7 @@
 package com.qimoju.jurpc.server;
 
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.RpcRuntime;
 import com.qimoju.jurpc.server.HttpServer;
 import com.qimoju.jurpc.server.HttpServerHandler;
 import io.vertx.core.Vertx;
@@ -8,10 +10,13 @@ public class VertxHttpServer implements HttpServer {
 
     @Override
     public void doStart(int port) {
-        //创建Vert.x实例
-        Vertx vertx = Vertx.vertx();
+        //使用运行时共享的Vert.x实例
+        RpcRuntime rpcRuntime = RpcApplication.getRpcRuntime();
+        Vertx vertx = rpcRuntime.getVertx();
         //创建HTTP服务器
         io.vertx.core.http.HttpServer server = vertx.createHttpServer();
+        //框架关闭时关闭服务器
+        rpcRuntime.addShutdownHook(server::close);
         //创建监听端口并处理请求
         server.requestHandler(new HttpServerHandler());
         //启动HTTP服务器并监听指定端口
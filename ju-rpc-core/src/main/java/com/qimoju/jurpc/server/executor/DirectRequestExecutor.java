@@ -0,0 +1,20 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.model.RpcRequest;
+
+/**
+ * 直接执行 - 请求执行器
+ * 在 I/O 线程上直接调用服务方法，没有线程切换开销，但慢方法会阻塞 event loop
+ *
+ */
+public class DirectRequestExecutor implements RequestExecutor {
+
+    @Override
+    public void execute(RpcRequest rpcRequest, Runnable task) {
+        task.run();
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
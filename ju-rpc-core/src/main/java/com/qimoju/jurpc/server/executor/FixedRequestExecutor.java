@@ -0,0 +1,59 @@
+package com.qimoju.jurpc.server.executor;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 固定线程池 - 请求执行器
+ * 所有服务共享一个有界线程池，队列满时拒绝新任务
+ *
+ */
+public class FixedRequestExecutor implements RequestExecutor {
+
+    private final ThreadPoolExecutor threadPool;
+
+    public FixedRequestExecutor() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public FixedRequestExecutor(RpcConfig rpcConfig) {
+        this.threadPool = newThreadPool("ju-rpc-server-", rpcConfig);
+    }
+
+    @Override
+    public void execute(RpcRequest rpcRequest, Runnable task) {
+        threadPool.execute(task);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return threadPool.getQueue().size();
+    }
+
+    @Override
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    /**
+     * 根据配置创建有界线程池
+     *
+     * @param namePrefix 线程名前缀
+     * @param rpcConfig 配置
+     * @return
+     */
+    static ThreadPoolExecutor newThreadPool(String namePrefix, RpcConfig rpcConfig) {
+        int poolSize = rpcConfig.getServerExecutorPoolSize();
+        return new ThreadPoolExecutor(poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(rpcConfig.getServerExecutorQueueSize()),
+                new NamedThreadFactory(namePrefix, false),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
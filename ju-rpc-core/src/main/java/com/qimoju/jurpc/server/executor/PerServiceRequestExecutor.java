@@ -0,0 +1,55 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 按服务隔离线程池 - 请求执行器
+ * 每个服务使用独立的有界线程池，一个服务的慢调用不会占满其他服务的线程
+ *
+ */
+public class PerServiceRequestExecutor implements RequestExecutor {
+
+    /**
+     * 服务名 => 线程池
+     */
+    private final Map<String, ThreadPoolExecutor> threadPoolMap = new ConcurrentHashMap<>();
+
+    private final RpcConfig rpcConfig;
+
+    public PerServiceRequestExecutor() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public PerServiceRequestExecutor(RpcConfig rpcConfig) {
+        this.rpcConfig = rpcConfig;
+    }
+
+    @Override
+    public void execute(RpcRequest rpcRequest, Runnable task) {
+        threadPoolMap.computeIfAbsent(rpcRequest.getServiceName(),
+                serviceName -> FixedRequestExecutor.newThreadPool("ju-rpc-" + serviceName + "-", rpcConfig))
+                .execute(task);
+    }
+
+    @Override
+    public int getQueueSize() {
+        int queueSize = 0;
+        for (ThreadPoolExecutor threadPool : threadPoolMap.values()) {
+            queueSize += threadPool.getQueue().size();
+        }
+        return queueSize;
+    }
+
+    @Override
+    public void shutdown() {
+        for (ThreadPoolExecutor threadPool : threadPoolMap.values()) {
+            threadPool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.qimoju.jurpc.server.executor;
+
+/**
+ * 执行器已满时的拒绝策略键名常量
+ *
+ */
+public interface RejectPolicyKeys {
+
+    /**
+     * 直接响应服务端繁忙状态，由调用方重试或容错
+     */
+    String BUSY = "busy";
+
+    /**
+     * 在 I/O 线程上直接执行
+     */
+    String CALLER_RUNS = "callerRuns";
+
+}
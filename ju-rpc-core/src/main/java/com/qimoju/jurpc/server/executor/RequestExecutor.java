@@ -0,0 +1,35 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.model.RpcRequest;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 服务端请求执行器（决定服务方法在哪个线程上调用）
+ * 请求在 I/O 线程（event loop）上解码后交给执行器，避免慢方法阻塞同一 event loop 上的所有连接
+ */
+public interface RequestExecutor {
+
+    /**
+     * 执行请求处理任务
+     *
+     * @param rpcRequest 请求，可用于按服务选择线程池
+     * @param task       处理任务（调用服务方法并写回响应）
+     * @throws RejectedExecutionException 执行器已满，无法接收新任务
+     */
+    void execute(RpcRequest rpcRequest, Runnable task) throws RejectedExecutionException;
+
+    /**
+     * 排队等待执行的请求数（用于服务端负载报告）
+     *
+     * @return
+     */
+    default int getQueueSize() {
+        return 0;
+    }
+
+    /**
+     * 关闭执行器
+     */
+    void shutdown();
+}
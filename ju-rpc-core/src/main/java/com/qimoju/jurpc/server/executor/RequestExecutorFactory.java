@@ -0,0 +1,25 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.spi.SpiLoader;
+
+/**
+ * 服务端请求执行器工厂（工厂模式，用于获取执行器对象）
+ *
+ */
+public class RequestExecutorFactory {
+
+    static {
+        SpiLoader.load(RequestExecutor.class);
+    }
+
+    /**
+     * 获取实例
+     *
+     * @param key
+     * @return
+     */
+    public static RequestExecutor getInstance(String key) {
+        return SpiLoader.getInstance(RequestExecutor.class, key);
+    }
+
+}
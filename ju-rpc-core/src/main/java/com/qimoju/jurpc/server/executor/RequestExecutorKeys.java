@@ -0,0 +1,29 @@
+package com.qimoju.jurpc.server.executor;
+
+/**
+ * 服务端请求执行器键名常量
+ *
+ */
+public interface RequestExecutorKeys {
+
+    /**
+     * 直接在 I/O 线程上执行（仅适合执行极快的方法）
+     */
+    String DIRECT = "direct";
+
+    /**
+     * 所有服务共享一个固定大小的线程池
+     */
+    String FIXED = "fixed";
+
+    /**
+     * 每个服务一个固定大小的线程池，服务之间互不影响
+     */
+    String PER_SERVICE = "perService";
+
+    /**
+     * 每个请求一个虚拟线程（JDK 21+），并发数由信号量限制
+     */
+    String VIRTUAL = "virtual";
+
+}
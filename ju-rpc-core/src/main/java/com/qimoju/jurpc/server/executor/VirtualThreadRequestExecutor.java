@@ -0,0 +1,94 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 虚拟线程 - 请求执行器
+ * 每个请求在一个新的虚拟线程上执行，适合服务方法中有大量阻塞调用（JDBC、HTTP）的场景；
+ * 通过信号量限制同时执行的请求数，避免压垮下游资源：提交前获取许可，获取不到时直接拒绝（回复服务端繁忙），
+ * 不创建等待许可的虚拟线程。
+ * 运行在 JDK 21 以下时退化为有界平台线程池
+ *
+ */
+@Slf4j
+public class VirtualThreadRequestExecutor implements RequestExecutor {
+
+    private final ExecutorService executorService;
+
+    /**
+     * 并发数限制，请求执行完成后归还许可
+     */
+    private final Semaphore semaphore;
+
+    public VirtualThreadRequestExecutor() {
+        this(RpcApplication.getRpcConfig());
+    }
+
+    public VirtualThreadRequestExecutor(RpcConfig rpcConfig) {
+        this.semaphore = new Semaphore(rpcConfig.getServerExecutorMaxConcurrency());
+        ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+            this.executorService = virtualThreadExecutor;
+        } else {
+            log.warn("当前 JDK 不支持虚拟线程，使用平台线程池执行请求");
+            this.executorService = FixedRequestExecutor.newThreadPool("ju-rpc-server-", rpcConfig);
+        }
+    }
+
+    @Override
+    public void execute(RpcRequest rpcRequest, Runnable task) {
+        if (!semaphore.tryAcquire()) {
+            throw new RejectedExecutionException("同时执行的请求数已达上限");
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    semaphore.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 排队等待执行的请求数：虚拟线程不排队；退化为平台线程池时为线程池的队列长度
+     */
+    @Override
+    public int getQueueSize() {
+        if (executorService instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executorService).getQueue().size();
+        }
+        return 0;
+    }
+
+    @Override
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，框架以 JDK 11 编译，不能直接引用 JDK 21 的 API
+     *
+     * @return 不支持虚拟线程时返回 null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
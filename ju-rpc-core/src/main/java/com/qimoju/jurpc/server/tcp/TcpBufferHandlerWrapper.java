@@ -1,58 +1,98 @@
 package com.qimoju.jurpc.server.tcp;
 
 import com.qimoju.jurpc.protocol.ProtocolConstant;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.parsetools.RecordParser;
 
 /**
- * 装饰者模式（使用 recordParser 对原有的 buffer 处理能力进行增强）
+ * 装饰者模式（对原有的 buffer 处理能力进行增强，按协议拆分出完整的消息）
+ * 收到的数据块追加到组合缓冲区（CompositeByteBuf）中，不复制字节；凑齐一条完整消息（头 + 体）后，
+ * 把这段数据的切片交给处理器，处理器返回（消息已解码）后释放切片，已读完的数据块随之丢弃。
+ * 消息头非法（消息体长度为负数或超过上限）时无法再定位后续消息的边界，释放缓冲区并通知失败处理器（关闭连接）；
+ * 连接关闭时调用 {@link #release()}
  */
 public class TcpBufferHandlerWrapper implements Handler<Buffer> {
 
-    private final RecordParser recordParser;
+    /**
+     * 组合缓冲区最多持有的数据块数，超过后合并
+     */
+    private static final int MAX_COMPONENTS = 64;
 
-    public TcpBufferHandlerWrapper(Handler<Buffer> bufferHandler) {
-        recordParser = initRecordParser(bufferHandler);
+    private final Handler<Buffer> bufferHandler;
+
+    /**
+     * 数据流无法继续拆分时的处理器
+     */
+    private final Handler<Throwable> failureHandler;
+
+    /**
+     * 消息体最大长度，避免按非法的长度无限累积数据
+     */
+    private final int maxBodyLength;
+
+    /**
+     * 已收到、还没有组成完整消息的数据
+     */
+    private final CompositeByteBuf cumulation = Unpooled.compositeBuffer(MAX_COMPONENTS);
+
+    /**
+     * 缓冲区是否已释放，释放后收到的数据直接丢弃
+     */
+    private boolean released;
+
+    public TcpBufferHandlerWrapper(Handler<Buffer> bufferHandler, Handler<Throwable> failureHandler, int maxBodyLength) {
+        this.bufferHandler = bufferHandler;
+        this.failureHandler = failureHandler;
+        this.maxBodyLength = maxBodyLength;
     }
 
     @Override
     public void handle(Buffer buffer) {
-        recordParser.handle(buffer);
-    }
-
-    private RecordParser initRecordParser(Handler<Buffer> bufferHandler) {
-        // 构造 parser
-        RecordParser parser = RecordParser.newFixed(ProtocolConstant.MESSAGE_HEADER_LENGTH);
-
-        parser.setOutput(new Handler<Buffer>() {
-            // 初始化
-            int size = -1;
-            // 一次完整的读取（头 + 体）
-            Buffer resultBuffer = Buffer.buffer();
-
-            @Override
-            public void handle(Buffer buffer) {
-                if (-1 == size) {
-                    // 读取消息体长度
-                    size = buffer.getInt(13);
-                    parser.fixedSizeMode(size);
-                    // 写入头信息到结果
-                    resultBuffer.appendBuffer(buffer);
-                } else {
-                    // 写入体信息到结果
-                    resultBuffer.appendBuffer(buffer);
-                    // 已拼接为完整 Buffer，执行处理
-                    bufferHandler.handle(resultBuffer);
-                    // 重置一轮
-                    parser.fixedSizeMode(ProtocolConstant.MESSAGE_HEADER_LENGTH);
-                    size = -1;
-                    resultBuffer = Buffer.buffer();
+        if (released) {
+            return;
+        }
+        // 不可释放的视图，组合缓冲区释放时不影响 Vert.x 持有的 buffer
+        cumulation.addComponent(true, BufferUtils.unwrap(buffer));
+        try {
+            while (cumulation.readableBytes() >= ProtocolConstant.MESSAGE_HEADER_LENGTH) {
+                int bodyLength = cumulation.getInt(cumulation.readerIndex() + ProtocolConstant.BODY_LENGTH_OFFSET);
+                if (bodyLength < 0 || bodyLength > maxBodyLength) {
+                    release();
+                    failureHandler.handle(new IllegalStateException(
+                            "消息体长度非法：" + bodyLength + "（上限 " + maxBodyLength + "）"));
+                    return;
+                }
+                int frameLength = ProtocolConstant.MESSAGE_HEADER_LENGTH + bodyLength;
+                if (cumulation.readableBytes() < frameLength) {
+                    break;
+                }
+                // 一次完整的读取（头 + 体），切片共享底层数据
+                ByteBuf frame = cumulation.readRetainedSlice(frameLength);
+                try {
+                    bufferHandler.handle(BufferUtils.wrap(frame));
+                } finally {
+                    frame.release();
                 }
             }
-        });
+        } finally {
+            // 丢弃已读完的数据块
+            if (!released) {
+                cumulation.discardReadComponents();
+            }
+        }
+    }
 
-        return parser;
+    /**
+     * 释放缓冲区中未组成完整消息的数据（连接关闭时调用，可重复调用）
+     */
+    public void release() {
+        if (!released) {
+            released = true;
+            cumulation.release();
+        }
     }
 }
-
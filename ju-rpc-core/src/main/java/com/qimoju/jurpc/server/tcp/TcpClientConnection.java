@@ -0,0 +1,171 @@
+package com.qimoju.jurpc.server.tcp;
+
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.protocol.ProtocolConstant;
+import com.qimoju.jurpc.protocol.ProtocolMessage;
+import com.qimoju.jurpc.protocol.ProtocolMessageDecoder;
+import com.qimoju.jurpc.protocol.ProtocolMessageEncoder;
+import com.qimoju.jurpc.protocol.ProtocolMessageStatusEnum;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetSocket;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TCP 客户端长连接
+ * 一条连接上可以同时发送多个请求（多路复用），通过消息头中的请求 id 将响应关联回对应的调用方
+ */
+@Slf4j
+class TcpClientConnection {
+
+    private final NetSocket socket;
+
+    /**
+     * 等待响应的请求：请求 id => 响应 future
+     */
+    private final Map<Long, CompletableFuture<RpcResponse>> pendingRequests = new ConcurrentHashMap<>();
+
+    /**
+     * 连接是否可用，连接关闭后置为 false
+     */
+    private volatile boolean active = true;
+
+    /**
+     * @param socket 已建立的连接
+     * @param maxBodyLength 响应消息体最大长度
+     */
+    TcpClientConnection(NetSocket socket, int maxBodyLength) {
+        this.socket = socket;
+        // 接收响应
+        TcpBufferHandlerWrapper bufferHandlerWrapper = new TcpBufferHandlerWrapper(this::handleResponse, e -> {
+            // 数据流无法继续拆分出响应，关闭连接，未完成的请求在关闭回调中失败
+            log.error("协议消息格式错误，关闭连接：{}", socket.remoteAddress(), e);
+            socket.close();
+        }, maxBodyLength);
+        socket.handler(bufferHandlerWrapper);
+        // 连接关闭时，释放未处理的数据，让所有未完成的请求失败
+        socket.closeHandler(v -> {
+            bufferHandlerWrapper.release();
+            close(new RuntimeException("连接已关闭：" + socket.remoteAddress()));
+        });
+        socket.exceptionHandler(e -> log.error("TCP 连接异常：{}", socket.remoteAddress(), e));
+    }
+
+    /**
+     * 发送请求
+     *
+     * @param protocolMessage 请求消息，消息头中必须带有唯一的请求 id
+     * @param timer 超时定时器
+     * @param timeoutMillis 超时时间（毫秒），0 表示不超时
+     * @return 响应 future，收到对应请求 id 的响应后完成，超时后以 TimeoutException 异常完成
+     */
+    CompletableFuture<RpcResponse> send(ProtocolMessage<RpcRequest> protocolMessage, Timer timer, long timeoutMillis) {
+        CompletableFuture<RpcResponse> responseFuture = new CompletableFuture<>();
+        long requestId = protocolMessage.getHeader().getRequestId();
+        pendingRequests.put(requestId, responseFuture);
+        if (timeoutMillis > 0) {
+            // 超时后从等待表中移除，之后到达的响应直接丢弃
+            Timeout timeout = timer.newTimeout(t -> failRequest(requestId,
+                            new TimeoutException("调用超时（" + timeoutMillis + "ms）：" + socket.remoteAddress())),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            responseFuture.whenComplete((rpcResponse, e) -> timeout.cancel());
+        }
+        // 放入等待表后再检查一次，避免与关闭回调并发时请求永远得不到响应
+        if (!active) {
+            failRequest(requestId, new RuntimeException("连接已关闭：" + socket.remoteAddress()));
+            return responseFuture;
+        }
+
+        // 编码请求到池化缓冲区，写出完成后归还
+        ByteBuf encodeBuffer;
+        try {
+            encodeBuffer = ProtocolMessageEncoder.encodePooled(protocolMessage);
+        } catch (IOException e) {
+            failRequest(requestId, new RuntimeException("协议消息编码错误", e));
+            return responseFuture;
+        }
+        socket.write(BufferUtils.wrap(encodeBuffer), result -> {
+            encodeBuffer.release();
+            if (result.failed()) {
+                failRequest(requestId, result.cause());
+            }
+        });
+        return responseFuture;
+    }
+
+    /**
+     * 连接是否可用
+     *
+     * @return
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * 关闭连接
+     */
+    void close() {
+        socket.close();
+    }
+
+    /**
+     * 处理响应，根据请求 id 完成对应的 future
+     *
+     * @param buffer 一条完整的响应消息
+     */
+    private void handleResponse(Buffer buffer) {
+        // 请求 id 在固定的消息头中，先读出，消息体解码失败时也能通知对应的调用方
+        long requestId = buffer.getLong(ProtocolConstant.REQUEST_ID_OFFSET);
+        ProtocolMessage<RpcResponse> rpcResponseProtocolMessage;
+        try {
+            rpcResponseProtocolMessage = (ProtocolMessage<RpcResponse>) ProtocolMessageDecoder.decode(buffer);
+        } catch (Exception e) {
+            log.error("协议消息解码错误，请求 {}", requestId, e);
+            failRequest(requestId, new RuntimeException("协议消息解码错误：" + socket.remoteAddress(), e));
+            return;
+        }
+        CompletableFuture<RpcResponse> responseFuture = pendingRequests.remove(requestId);
+        if (responseFuture == null) {
+            log.warn("未找到请求 {} 对应的调用方（可能已超时），响应已丢弃", requestId);
+            return;
+        }
+        // 服务端业务线程池已满，按调用失败处理，交给重试和容错策略
+        if (rpcResponseProtocolMessage.getHeader().getStatus() == ProtocolMessageStatusEnum.SERVER_BUSY.getValue()) {
+            responseFuture.completeExceptionally(new RuntimeException("服务端繁忙：" + socket.remoteAddress()));
+            return;
+        }
+        // 服务端无法解码请求，按调用失败处理
+        if (rpcResponseProtocolMessage.getHeader().getStatus() == ProtocolMessageStatusEnum.BAD_REQUEST.getValue()) {
+            responseFuture.completeExceptionally(new RuntimeException(
+                    rpcResponseProtocolMessage.getBody().getMessage() + "：" + socket.remoteAddress()));
+            return;
+        }
+        responseFuture.complete(rpcResponseProtocolMessage.getBody());
+    }
+
+    private void failRequest(long requestId, Throwable cause) {
+        CompletableFuture<RpcResponse> responseFuture = pendingRequests.remove(requestId);
+        if (responseFuture != null) {
+            responseFuture.completeExceptionally(cause);
+        }
+    }
+
+    private void close(Throwable cause) {
+        active = false;
+        for (Long requestId : pendingRequests.keySet()) {
+            failRequest(requestId, cause);
+        }
+    }
+}
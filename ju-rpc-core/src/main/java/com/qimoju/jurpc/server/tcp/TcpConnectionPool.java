@@ -0,0 +1,96 @@
+package com.qimoju.jurpc.server.tcp;
+
+import io.vertx.core.net.NetClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 单个服务提供者地址（host:port）的 TCP 连接池
+ * 固定数量的连接槽位轮流使用，连接断开或建立失败后，下次获取该槽位时重新建立连接
+ */
+@Slf4j
+class TcpConnectionPool {
+
+    private final NetClient netClient;
+
+    private final String host;
+
+    private final int port;
+
+    /**
+     * 响应消息体最大长度
+     */
+    private final int maxBodyLength;
+
+    /**
+     * 连接槽位，每个槽位存放一个（可能仍在建立中的）连接
+     */
+    private final AtomicReferenceArray<CompletableFuture<TcpClientConnection>> connections;
+
+    /**
+     * 当前轮询的下标
+     */
+    private final AtomicInteger currentIndex = new AtomicInteger(0);
+
+    TcpConnectionPool(NetClient netClient, String host, int port, int poolSize, int maxBodyLength) {
+        this.netClient = netClient;
+        this.host = host;
+        this.port = port;
+        this.maxBodyLength = maxBodyLength;
+        this.connections = new AtomicReferenceArray<>(Math.max(poolSize, 1));
+    }
+
+    /**
+     * 获取一个可用连接
+     *
+     * @return 连接 future，连接建立失败时异常完成
+     */
+    CompletableFuture<TcpClientConnection> acquire() {
+        int slot = (currentIndex.getAndIncrement() & Integer.MAX_VALUE) % connections.length();
+        CompletableFuture<TcpClientConnection> current = connections.get(slot);
+        if (isUsable(current)) {
+            return current;
+        }
+        // 槽位为空、连接已断开或建立失败，重新建立连接
+        CompletableFuture<TcpClientConnection> newConnection = new CompletableFuture<>();
+        if (!connections.compareAndSet(slot, current, newConnection)) {
+            // 其他线程已经在重连，直接复用
+            return connections.get(slot);
+        }
+        netClient.connect(port, host, result -> {
+            if (result.succeeded()) {
+                newConnection.complete(new TcpClientConnection(result.result(), maxBodyLength));
+            } else {
+                log.error("Failed to connect to TCP server {}:{}", host, port, result.cause());
+                newConnection.completeExceptionally(result.cause());
+            }
+        });
+        return newConnection;
+    }
+
+    /**
+     * 关闭池中所有连接
+     */
+    void close() {
+        for (int i = 0; i < connections.length(); i++) {
+            CompletableFuture<TcpClientConnection> connection = connections.getAndSet(i, null);
+            if (connection != null) {
+                connection.thenAccept(TcpClientConnection::close);
+            }
+        }
+    }
+
+    private boolean isUsable(CompletableFuture<TcpClientConnection> connection) {
+        if (connection == null || connection.isCompletedExceptionally()) {
+            return false;
+        }
+        // 仍在建立中的连接可以直接等待
+        if (!connection.isDone()) {
+            return true;
+        }
+        return connection.join().isActive();
+    }
+}
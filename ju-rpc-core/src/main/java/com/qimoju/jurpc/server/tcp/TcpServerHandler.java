@@ -1,64 +1,277 @@
 package com.qimoju.jurpc.server.tcp;
 
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
 import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.protocol.ProtocolConstant;
 import com.qimoju.jurpc.protocol.ProtocolMessage;
 import com.qimoju.jurpc.protocol.ProtocolMessageDecoder;
 import com.qimoju.jurpc.protocol.ProtocolMessageEncoder;
+import com.qimoju.jurpc.protocol.ProtocolMessageSerializerEnum;
+import com.qimoju.jurpc.protocol.ProtocolMessageStatusEnum;
 import com.qimoju.jurpc.protocol.ProtocolMessageTypeEnum;
 import com.qimoju.jurpc.registry.LocalRegistry;
+import com.qimoju.jurpc.registry.MethodInvoker;
+import com.qimoju.jurpc.server.ServerLoadMonitor;
+import com.qimoju.jurpc.server.executor.RejectPolicyKeys;
+import com.qimoju.jurpc.server.executor.RequestExecutor;
+import com.qimoju.jurpc.server.executor.RequestExecutorFactory;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetSocket;
+import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
-import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * TCP 请求处理器
+ * 在 I/O 线程（event loop）上解码请求，交给请求执行器调用服务方法，再回到连接所在的 event loop 写回响应；
+ * 每个响应附带服务端负载报告；在执行器中排队超过调用方超时时间的请求直接丢弃
+ */
+@Slf4j
 public class TcpServerHandler implements Handler<NetSocket> {
+
+    private final RequestExecutor requestExecutor;
+
+    /**
+     * 执行器已满时是否在 I/O 线程上直接执行
+     */
+    private final boolean callerRunsOnReject;
+
+    private final ServerLoadMonitor serverLoadMonitor;
+
+    /**
+     * 请求消息体最大长度
+     */
+    private final int maxBodyLength;
+
+    public TcpServerHandler(ServerLoadMonitor serverLoadMonitor) {
+        RpcConfig rpcConfig = RpcApplication.getRpcConfig();
+        this.requestExecutor = RequestExecutorFactory.getInstance(rpcConfig.getServerExecutor());
+        this.callerRunsOnReject = RejectPolicyKeys.CALLER_RUNS.equals(rpcConfig.getServerExecutorRejectPolicy());
+        this.serverLoadMonitor = serverLoadMonitor;
+        this.maxBodyLength = rpcConfig.getMaxBodyLength();
+    }
+
     @Override
     public void handle(NetSocket netSocket) {
+        // 连接所在的 event loop，响应统一在这里写回
+        Context context = Vertx.currentContext();
         // 创建 TcpBufferHandlerWrapper
         TcpBufferHandlerWrapper bufferHandlerWrapper = new TcpBufferHandlerWrapper(buffer -> {
             //接受请求，解码
             ProtocolMessage<RpcRequest> protocolMessage;
             try {
                 protocolMessage = (ProtocolMessage<RpcRequest>)ProtocolMessageDecoder.decode(buffer);
-            } catch (IOException e) {
-                throw new RuntimeException("协议消息解码错误！",e);
+            } catch (Exception e) {
+                handleDecodeFailure(netSocket, context, buffer, e);
+                return;
             }
             RpcRequest rpcRequest = protocolMessage.getBody();
+            ProtocolMessage.Header header = protocolMessage.getHeader();
+            serverLoadMonitor.beginRequest();
+            long receivedNanos = System.nanoTime();
 
-            //处理请求
-            //构造响应结果对象
-            RpcResponse rpcResponse = new RpcResponse();
+            //处理请求，交给请求执行器，避免服务方法阻塞 event loop
+            Runnable task = () -> {
+                if (isExpired(rpcRequest, receivedNanos)) {
+                    //排队期间已超过调用方的超时时间，调用方不再等待响应，直接丢弃
+                    serverLoadMonitor.endRequest();
+                    log.warn("请求已超时，不再处理：{}.{}", rpcRequest.getServiceName(), rpcRequest.getMethodName());
+                    return;
+                }
+                doInvoke(netSocket, context, header, rpcRequest);
+            };
             try {
-                //获取要调用的服务的实现类，通过反射调用
-                Class<?> implClass = LocalRegistry.get(rpcRequest.getServiceName());
-                Method method = implClass.getMethod(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
-                Object result = method.invoke(implClass.newInstance(), rpcRequest.getArgs());
-                //封装返回结果
-                rpcResponse.setData(result);
-                rpcResponse.setDataType(method.getReturnType());
-                rpcResponse.setMessage("ok");
-            }catch (Exception e){
-                e.printStackTrace();
-                rpcResponse.setMessage("Error:"+e.getMessage());
+                requestExecutor.execute(rpcRequest, task);
+            } catch (RejectedExecutionException e) {
+                if (callerRunsOnReject) {
+                    task.run();
+                    return;
+                }
+                RpcResponse rpcResponse = new RpcResponse();
+                rpcResponse.setMessage("服务端繁忙");
                 rpcResponse.setException(e);
+                doResponse(netSocket, context, header, ProtocolMessageStatusEnum.SERVER_BUSY, rpcResponse);
             }
+        }, e -> {
+            // 数据流无法继续拆分出消息，关闭连接
+            log.error("协议消息格式错误，关闭连接：{}", netSocket.remoteAddress(), e);
+            netSocket.close();
+        }, maxBodyLength);
 
-            //发送响应 编码
-            ProtocolMessage.Header header = protocolMessage.getHeader();
-            header.setType((byte) ProtocolMessageTypeEnum.RESPONSE.getKey());
-            ProtocolMessage<RpcResponse> responseProtocolMessage = new ProtocolMessage<>(header, rpcResponse);
+        // 使用 TcpBufferHandlerWrapper 处理连接
+        netSocket.handler(bufferHandlerWrapper);
+        netSocket.closeHandler(v -> bufferHandlerWrapper.release());
+    }
+
+    /**
+     * 请求解码失败
+     * 消息头可以识别（魔数正确、序列化协议存在）时，按请求 id 回复错误响应，调用方不必等到超时；
+     * 否则无法回复，关闭连接，调用方的请求在连接关闭时失败
+     *
+     * @param netSocket 连接
+     * @param context 连接所在的 Vert.x 上下文
+     * @param buffer 一条完整的请求消息
+     * @param e 解码异常
+     */
+    private void handleDecodeFailure(NetSocket netSocket, Context context, Buffer buffer, Exception e) {
+        long requestId = buffer.getLong(ProtocolConstant.REQUEST_ID_OFFSET);
+        log.error("协议消息解码错误，请求 {}：{}", requestId, netSocket.remoteAddress(), e);
+        byte serializer = buffer.getByte(2);
+        if (buffer.getByte(0) != ProtocolConstant.PROTOCOL_MAGIC
+                || ProtocolMessageSerializerEnum.getEnumByKey(serializer) == null) {
+            netSocket.close();
+            return;
+        }
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer(serializer);
+        header.setRequestId(requestId);
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setMessage("协议消息解码错误：" + e.getMessage());
+        rpcResponse.setException(new RuntimeException("协议消息解码错误：" + e.getMessage()));
+        // 与正常请求一样计入负载，doResponse 中结束
+        serverLoadMonitor.beginRequest();
+        doResponse(netSocket, context, header, ProtocolMessageStatusEnum.BAD_REQUEST, rpcResponse);
+    }
+
+    /**
+     * 请求是否已超过调用方的超时时间（从收到请求开始计算）
+     *
+     * @param rpcRequest 请求
+     * @param receivedNanos 收到请求的时间（System.nanoTime）
+     * @return
+     */
+    private static boolean isExpired(RpcRequest rpcRequest, long receivedNanos) {
+        long timeout = rpcRequest.getTimeout();
+        return timeout > 0 && System.nanoTime() - receivedNanos >= TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * 调用服务方法并发送响应
+     *
+     * @param netSocket 连接
+     * @param context 连接所在的 Vert.x 上下文
+     * @param header 请求的消息头
+     * @param rpcRequest 请求
+     */
+    private void doInvoke(NetSocket netSocket, Context context, ProtocolMessage.Header header, RpcRequest rpcRequest) {
+        //构造响应结果对象
+        RpcResponse rpcResponse = new RpcResponse();
+        try {
+            //获取要调用的服务方法的调用器（注册时预先创建）
+            MethodInvoker methodInvoker = LocalRegistry.getMethodInvoker(rpcRequest);
+            Object result = methodInvoker.invoke(rpcRequest.getArgs());
+            //异步方法，结果完成后再响应
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((value, e) ->
+                        doResponse(netSocket, context, header, ProtocolMessageStatusEnum.OK, buildAsyncResponse(value, e)));
+                return;
+            }
+            //封装返回结果
+            rpcResponse.setData(result);
+            rpcResponse.setDataType(methodInvoker.getReturnType());
+            rpcResponse.setMessage("ok");
+        }catch (Throwable e){
+            log.error("服务方法调用失败：{}.{}", rpcRequest.getServiceName(), rpcRequest.getMethodName(), e);
+            rpcResponse.setMessage("Error:"+e.getMessage());
+            rpcResponse.setException(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+        }
+
+        doResponse(netSocket, context, header, ProtocolMessageStatusEnum.OK, rpcResponse);
+    }
+
+    /**
+     * 发送响应
+     * 附带负载报告，在当前线程编码到池化缓冲区，在连接所在的 event loop 上写出
+     *
+     * @param netSocket 连接
+     * @param context 连接所在的 Vert.x 上下文
+     * @param header 请求的消息头（复用请求 id）
+     * @param status 响应状态
+     * @param rpcResponse 响应结果
+     */
+    private void doResponse(NetSocket netSocket, Context context, ProtocolMessage.Header header,
+                            ProtocolMessageStatusEnum status, RpcResponse rpcResponse) {
+        //请求处理结束，附带负载报告
+        serverLoadMonitor.endRequest();
+        rpcResponse.setLoadReport(serverLoadMonitor.report());
+        //发送响应 编码
+        header.setType((byte) ProtocolMessageTypeEnum.RESPONSE.getKey());
+        header.setStatus((byte) status.getValue());
+        ByteBuf encode = encodeResponse(header, rpcResponse);
+        if (encode == null) {
+            return;
+        }
+        if (context == null || Vertx.currentContext() == context) {
+            write(netSocket, encode);
+        } else {
+            context.runOnContext(v -> write(netSocket, encode));
+        }
+    }
+
+    /**
+     * 编码响应到池化缓冲区
+     * 响应编码失败时（如返回值不能序列化）改为发送只带错误信息的响应，避免调用方一直等到超时；仍然失败时返回 null
+     *
+     * @param header 响应的消息头
+     * @param rpcResponse 响应结果
+     * @return 编码后的缓冲区，写出后需要释放
+     */
+    private static ByteBuf encodeResponse(ProtocolMessage.Header header, RpcResponse rpcResponse) {
+        try {
+            return ProtocolMessageEncoder.encodePooled(new ProtocolMessage<>(header, rpcResponse));
+        } catch (Exception e) {
+            log.error("协议消息编码错误，请求 {}", header.getRequestId(), e);
+            RpcResponse errorResponse = new RpcResponse();
+            errorResponse.setMessage("协议消息编码错误：" + e.getMessage());
+            errorResponse.setException(new RuntimeException("协议消息编码错误：" + e.getMessage()));
             try {
-                Buffer encode = ProtocolMessageEncoder.encode(responseProtocolMessage);
-                netSocket.write(encode);
-            } catch (IOException e) {
-                throw new RuntimeException("协议消息编码错误");
+                return ProtocolMessageEncoder.encodePooled(new ProtocolMessage<>(header, errorResponse));
+            } catch (Exception ex) {
+                log.error("错误响应编码失败，请求 {}", header.getRequestId(), ex);
+                return null;
             }
-        });
+        }
+    }
 
-        // 使用 TcpBufferHandlerWrapper 处理连接
-        netSocket.handler(bufferHandlerWrapper);
+    /**
+     * 写出编码后的池化缓冲区，写出完成（无论成功与否）后归还
+     */
+    private static void write(NetSocket netSocket, ByteBuf encode) {
+        netSocket.write(BufferUtils.wrap(encode), result -> encode.release());
+    }
+
+    /**
+     * 根据异步方法的执行结果构造响应
+     * 方法声明的返回值类型是 future，因此数据类型取实际结果的类型
+     *
+     * @param value 执行结果
+     * @param e 执行异常
+     * @return
+     */
+    private RpcResponse buildAsyncResponse(Object value, Throwable e) {
+        RpcResponse rpcResponse = new RpcResponse();
+        if (e != null) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("异步服务方法执行失败", cause);
+            rpcResponse.setMessage("Error:" + cause.getMessage());
+            rpcResponse.setException(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            return rpcResponse;
+        }
+        rpcResponse.setData(value);
+        rpcResponse.setDataType(value == null ? Object.class : value.getClass());
+        rpcResponse.setMessage("ok");
+        return rpcResponse;
     }
 }
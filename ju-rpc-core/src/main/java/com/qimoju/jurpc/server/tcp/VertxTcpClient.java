@@ -2,24 +2,50 @@ package com.qimoju.jurpc.server.tcp;
 
 import cn.hutool.core.util.IdUtil;
 import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
 import com.qimoju.jurpc.model.RpcRequest;
 import com.qimoju.jurpc.model.RpcResponse;
 import com.qimoju.jurpc.model.ServiceMetaInfo;
 import com.qimoju.jurpc.protocol.*;
-import io.vertx.core.Vertx;
-import io.vertx.core.buffer.Buffer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import io.vertx.core.net.NetClient;
-import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.NetClientOptions;
 
-import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Vertx TCP 请求客户端
+ * 按服务提供者地址（host:port）维护长连接池，并发请求复用连接，通过请求 ID 关联响应
  */
 public class VertxTcpClient {
 
+    /**
+     * 所有连接共享的 NetClient，使用运行时共享的 Vert.x 实例创建
+     */
+    private static final NetClient NET_CLIENT = RpcApplication.getRpcRuntime().getVertx()
+            .createNetClient(new NetClientOptions().setTcpKeepAlive(true));
+
+    /**
+     * 连接池：服务地址（host:port） => 连接池
+     */
+    private static final Map<String, TcpConnectionPool> CONNECTION_POOL_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 调用超时定时器（运行时共享的时间轮）
+     */
+    private static final Timer TIMER = RpcApplication.getRpcRuntime().getTimer();
+
+    static {
+        // 框架关闭时关闭所有连接
+        RpcApplication.getRpcRuntime().addShutdownHook(VertxTcpClient::close);
+    }
+
     /**
      * 发送请求
      *
@@ -30,58 +56,89 @@ public class VertxTcpClient {
      * @throws ExecutionException 当请求执行失败时抛出此异常
      */
     public static RpcResponse doRequest(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo) throws InterruptedException, ExecutionException {
-        // 发送 TCP 请求
-        Vertx vertx = Vertx.vertx();
-        NetClient netClient = vertx.createNetClient();
-        CompletableFuture<RpcResponse> responseFuture = new CompletableFuture<>();
-        netClient.connect(serviceMetaInfo.getServicePort(), serviceMetaInfo.getServiceHost(),
-                result -> {
-                    if (!result.succeeded()) {
-                        System.err.println("Failed to connect to TCP server");
-                        return;
-                    }
-                    NetSocket socket = result.result();
-                    // 发送数据
-                    // 构造消息
-                    ProtocolMessage<RpcRequest> protocolMessage = new ProtocolMessage<>();
-                    ProtocolMessage.Header header = new ProtocolMessage.Header();
-                    header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
-                    header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
-                    header.setSerializer((byte) ProtocolMessageSerializerEnum.getEnumByValue(RpcApplication.getRpcConfig().getSerializer()).getKey());
-                    header.setType((byte) ProtocolMessageTypeEnum.REQUEST.getKey());
-                    // 生成全局请求 ID
-                    header.setRequestId(IdUtil.getSnowflakeNextId());
-                    protocolMessage.setHeader(header);
-                    protocolMessage.setBody(rpcRequest);
+        return doRequestAsync(rpcRequest, serviceMetaInfo).get();
+    }
 
-                    // 编码请求
-                    try {
-                        Buffer encodeBuffer = ProtocolMessageEncoder.encode(protocolMessage);
-                        socket.write(encodeBuffer);
-                    } catch (IOException e) {
-                        throw new RuntimeException("协议消息编码错误");
+    /**
+     * 异步发送请求
+     *
+     * @param rpcRequest 请求对象
+     * @param serviceMetaInfo 服务元信息
+     * @return 响应 future，连接失败、连接断开或超时（请求中的 timeout）时异常完成
+     */
+    public static CompletableFuture<RpcResponse> doRequestAsync(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo) {
+        // 构造消息
+        ProtocolMessage<RpcRequest> protocolMessage = new ProtocolMessage<>();
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.getEnumByValue(RpcApplication.getRpcConfig().getSerializer()).getKey());
+        header.setType((byte) ProtocolMessageTypeEnum.REQUEST.getKey());
+        // 生成全局请求 ID，用于在同一连接上关联响应
+        header.setRequestId(IdUtil.getSnowflakeNextId());
+        protocolMessage.setHeader(header);
+
+        CompletableFuture<TcpClientConnection> connectionFuture = getConnectionPool(serviceMetaInfo).acquire();
+        long timeoutMillis = rpcRequest.getTimeout();
+        if (timeoutMillis <= 0) {
+            protocolMessage.setBody(rpcRequest);
+            return connectionFuture.thenCompose(connection -> connection.send(protocolMessage, TIMER, 0));
+        }
+        // 超时时间包括建立连接的时间，发送时消息体中带上剩余的时间（请求的副本，不修改传入的请求）
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return withTimeout(connectionFuture, timeoutMillis, serviceMetaInfo)
+                .thenCompose(connection -> {
+                    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        return CompletableFuture.failedFuture(newTimeoutException(timeoutMillis, serviceMetaInfo));
                     }
+                    protocolMessage.setBody(rpcRequest.withTimeout(remainingMillis));
+                    return connection.send(protocolMessage, TIMER, remainingMillis);
+                });
+    }
+
+    /**
+     * 关闭所有连接
+     */
+    public static void close() {
+        for (TcpConnectionPool connectionPool : CONNECTION_POOL_MAP.values()) {
+            connectionPool.close();
+        }
+        CONNECTION_POOL_MAP.clear();
+    }
 
-                    // 接收响应
-                    TcpBufferHandlerWrapper bufferHandlerWrapper = new TcpBufferHandlerWrapper(
-                            buffer -> {
-                                try {
-                                    ProtocolMessage<RpcResponse> rpcResponseProtocolMessage =
-                                            (ProtocolMessage<RpcResponse>) ProtocolMessageDecoder.decode(buffer);
-                                    responseFuture.complete(rpcResponseProtocolMessage.getBody());
-                                } catch (IOException e) {
-                                    throw new RuntimeException("协议消息解码错误");
-                                }
-                            }
-                    );
-                    socket.handler(bufferHandlerWrapper);
+    /**
+     * 等待连接建立，超时后返回的 future 异常完成（不影响连接池中共享的连接 future）
+     */
+    private static CompletableFuture<TcpClientConnection> withTimeout(CompletableFuture<TcpClientConnection> connectionFuture,
+                                                                     long timeoutMillis, ServiceMetaInfo serviceMetaInfo) {
+        // 连接已建立（绝大多数情况），不需要定时
+        if (connectionFuture.isDone()) {
+            return connectionFuture;
+        }
+        CompletableFuture<TcpClientConnection> result = new CompletableFuture<>();
+        Timeout timeout = TIMER.newTimeout(t -> result.completeExceptionally(newTimeoutException(timeoutMillis, serviceMetaInfo)),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        connectionFuture.whenComplete((connection, e) -> {
+            timeout.cancel();
+            if (e == null) {
+                result.complete(connection);
+            } else {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
 
-                });
+    private static TimeoutException newTimeoutException(long timeoutMillis, ServiceMetaInfo serviceMetaInfo) {
+        return new TimeoutException("调用超时（" + timeoutMillis + "ms）：" + serviceMetaInfo.getServiceHost() + ":" + serviceMetaInfo.getServicePort());
+    }
 
-        RpcResponse rpcResponse = responseFuture.get();
-        // 记得关闭连接
-        netClient.close();
-        return rpcResponse;
+    private static TcpConnectionPool getConnectionPool(ServiceMetaInfo serviceMetaInfo) {
+        String host = serviceMetaInfo.getServiceHost();
+        int port = serviceMetaInfo.getServicePort();
+        RpcConfig rpcConfig = RpcApplication.getRpcConfig();
+        return CONNECTION_POOL_MAP.computeIfAbsent(host + ":" + port, address -> new TcpConnectionPool(NET_CLIENT, host, port,
+                rpcConfig.getConnectionPoolSize(), rpcConfig.getMaxBodyLength()));
     }
 }
-
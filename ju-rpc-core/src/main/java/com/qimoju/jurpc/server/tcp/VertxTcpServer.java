@@ -1,7 +1,12 @@
 package com.qimoju.jurpc.server.tcp;
 
 
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.RpcRuntime;
 import com.qimoju.jurpc.server.HttpServer;
+import com.qimoju.jurpc.server.ServerLoadMonitor;
+import com.qimoju.jurpc.server.executor.RequestExecutor;
+import com.qimoju.jurpc.server.executor.RequestExecutorFactory;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetServer;
@@ -15,13 +20,23 @@ public class VertxTcpServer implements HttpServer {
     }
     @Override
     public void doStart(int port) {
-        // 创建Vertx实例
-        Vertx vertx = Vertx.vertx();
+        // 使用运行时共享的Vertx实例
+        RpcRuntime rpcRuntime = RpcApplication.getRpcRuntime();
+        Vertx vertx = rpcRuntime.getVertx();
+        // 请求执行器在服务器关闭之后关闭（关闭操作逆序执行），让已接收的请求处理完
+        RequestExecutor requestExecutor = RequestExecutorFactory.getInstance(RpcApplication.getRpcConfig().getServerExecutor());
+        rpcRuntime.addShutdownHook(requestExecutor::shutdown);
         // 创建TCP服务器
         NetServer server = vertx.createNetServer();
+        // 框架关闭时关闭服务器
+        rpcRuntime.addShutdownHook(server::close);
+
+        // 服务端负载监控，负载报告附带在每个响应中
+        ServerLoadMonitor serverLoadMonitor = new ServerLoadMonitor(requestExecutor);
+        serverLoadMonitor.start(rpcRuntime);
 
         // 设置连接处理程序，每当有新的连接时触发
-        server.connectHandler(new TcpServerHandler());
+        server.connectHandler(new TcpServerHandler(serverLoadMonitor));
 
         // 启动TCP服务器并监听指定端口
         server.listen(port, result -> {
@@ -1,11 +1,13 @@
 package com.qimoju.jurpc.spi;
 
 import cn.hutool.core.io.resource.ResourceUtil;
+import com.qimoju.jurpc.config.RpcConfig;
 import com.qimoju.jurpc.serializer.Serializer;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -120,29 +122,15 @@ public class SpiLoader {
      * @throws RuntimeException 如果找不到对应的实现类或实例化失败，则抛出运行时异常
      */
     public static <T> T getInstance(Class<T> tClass, String key) {
-        // 获取类的全限定名
-        String tClassName = tClass.getName();
-        // 从loaderMap中获取对应类名的实现类映射
-        Map<String, Class<?>> keyClassMap = loaderMap.get(tClassName);
-        // 如果没有找到对应的实现类映射，抛出异常
-        if (keyClassMap == null){
-            log.error(String.format("未找到对应的SPI实现类，未加载 %s 类型", tClassName));
-            throw new RuntimeException(String.format("未找到对应的SPI实现类，未加载 %s 类型", tClassName));
-        }
-        // 如果映射中没有指定键的实现类，抛出异常
-        if (!keyClassMap.containsKey(key)){
-            log.error(String.format("未找到对应的SPI实现类，未找到 %s 类型的 %s 实现类", tClassName, key));
-            throw new RuntimeException(String.format("未找到对应的SPI实现类，未找到 %s 类型的 %s 实现类", tClassName, key));
-        }
         // 获取到要加载的实现类型
-        Class<?> implClass = keyClassMap.get(key);
+        Class<?> implClass = getImplClass(tClass, key);
         // 从实例缓存中加载指定类型的实例
         String implClassName = implClass.getName();
         if (!instanceCache.containsKey(implClassName)){
             try{
                 // 如果缓存中没有关于该类型的实例，则尝试重新实例化
-                instanceCache.put(implClassName,implClass.newInstance());
-            } catch (InstantiationException | IllegalAccessException e){
+                instanceCache.put(implClassName,implClass.getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException e){
                 // 如果实例化失败，记录日志并抛出异常
                 String errMsg = String.format("实例化 %s 失败", implClassName);
                 log.error(errMsg,e);
@@ -153,4 +141,54 @@ public class SpiLoader {
         return (T) instanceCache.get(implClassName);
     }
 
+    /**
+     * 根据给定的类和键获取按配置创建的实例
+     * 实现类有以 RpcConfig 为参数的构造方法时，使用传入的配置创建新实例（不缓存，由调用方持有）；
+     * 否则返回与 {@link #getInstance(Class, String)} 相同的单例
+     *
+     * @param tClass 要实例化的类的Class对象
+     * @param key 用于区分不同实现的键
+     * @param rpcConfig 创建实例使用的配置
+     * @param <T> 泛型参数，表示要返回的实例的类型
+     * @return 返回指定类和键对应的实例
+     * @throws RuntimeException 如果找不到对应的实现类或实例化失败，则抛出运行时异常
+     */
+    public static <T> T getInstance(Class<T> tClass, String key, RpcConfig rpcConfig) {
+        Class<?> implClass = getImplClass(tClass, key);
+        Constructor<?> constructor;
+        try {
+            constructor = implClass.getConstructor(RpcConfig.class);
+        } catch (NoSuchMethodException e) {
+            return getInstance(tClass, key);
+        }
+        try {
+            return tClass.cast(constructor.newInstance(rpcConfig));
+        } catch (ReflectiveOperationException e) {
+            String errMsg = String.format("实例化 %s 失败", implClass.getName());
+            log.error(errMsg, e);
+            throw new RuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * 获取给定的类和键对应的实现类
+     */
+    private static Class<?> getImplClass(Class<?> tClass, String key) {
+        // 获取类的全限定名
+        String tClassName = tClass.getName();
+        // 从loaderMap中获取对应类名的实现类映射
+        Map<String, Class<?>> keyClassMap = loaderMap.get(tClassName);
+        // 如果没有找到对应的实现类映射，抛出异常
+        if (keyClassMap == null){
+            log.error(String.format("未找到对应的SPI实现类，未加载 %s 类型", tClassName));
+            throw new RuntimeException(String.format("未找到对应的SPI实现类，未加载 %s 类型", tClassName));
+        }
+        // 如果映射中没有指定键的实现类，抛出异常
+        if (!keyClassMap.containsKey(key)){
+            log.error(String.format("未找到对应的SPI实现类，未找到 %s 类型的 %s 实现类", tClassName, key));
+            throw new RuntimeException(String.format("未找到对应的SPI实现类，未找到 %s 类型的 %s 实现类", tClassName, key));
+        }
+        return keyClassMap.get(key);
+    }
+
 }
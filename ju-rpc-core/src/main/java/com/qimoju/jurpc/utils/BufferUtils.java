@@ -0,0 +1,37 @@
+package com.qimoju.jurpc.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.buffer.impl.BufferImpl;
+
+/**
+ * Vert.x Buffer 与 Netty ByteBuf 的转换工具类
+ * Buffer.getByteBuf() 和 Buffer.buffer(ByteBuf) 已标记为过时，框架中的转换统一通过这里完成，不复制字节
+ */
+public class BufferUtils {
+
+    /**
+     * 获取 Buffer 底层数据的视图
+     * 返回不可释放的副本（读写下标独立），释放视图或持有它的组合缓冲区时不影响 Vert.x 持有的 Buffer
+     *
+     * @param buffer Vert.x Buffer
+     * @return
+     */
+    public static ByteBuf unwrap(Buffer buffer) {
+        if (buffer instanceof BufferImpl) {
+            return Unpooled.unreleasableBuffer(((BufferImpl) buffer).byteBuf().duplicate());
+        }
+        return Unpooled.wrappedBuffer(buffer.getBytes());
+    }
+
+    /**
+     * 把 ByteBuf 包装为 Vert.x Buffer，两者共享数据，ByteBuf 仍由调用方释放
+     *
+     * @param byteBuf Netty ByteBuf
+     * @return
+     */
+    public static Buffer wrap(ByteBuf byteBuf) {
+        return BufferImpl.buffer(byteBuf);
+    }
+}
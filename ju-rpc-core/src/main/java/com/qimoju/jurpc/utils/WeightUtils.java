@@ -0,0 +1,61 @@
+package com.qimoju.jurpc.utils;
+
+import com.qimoju.jurpc.constant.RpcConstant;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+
+/**
+ * 节点权重工具类
+ * 加权负载均衡器统一通过这里获取节点的有效权重：刚注册的节点在预热时间内权重从 1 线性增长到配置的权重，
+ * 避免刚启动（代码还没有被 JIT 编译）的节点立即承担全部流量
+ */
+public class WeightUtils {
+
+    /**
+     * 获取节点配置的权重，未设置时使用默认权重，负数按 0 处理
+     *
+     * @param serviceMetaInfo 节点信息
+     * @return
+     */
+    public static int getWeight(ServiceMetaInfo serviceMetaInfo) {
+        Integer weight = serviceMetaInfo.getWeight();
+        if (weight == null) {
+            return RpcConstant.DEFAULT_WEIGHT;
+        }
+        return Math.max(weight, 0);
+    }
+
+    /**
+     * 获取节点的有效权重（考虑预热）
+     *
+     * @param serviceMetaInfo 节点信息
+     * @param nowMillis 当前时间（毫秒）
+     * @return
+     */
+    public static int getEffectiveWeight(ServiceMetaInfo serviceMetaInfo, long nowMillis) {
+        int weight = getWeight(serviceMetaInfo);
+        long warmupEndMillis = getWarmupEndMillis(serviceMetaInfo);
+        if (weight == 0 || nowMillis >= warmupEndMillis) {
+            return weight;
+        }
+        long warmup = serviceMetaInfo.getWarmup();
+        // 消费端与服务端时钟可能有偏差，运行时间为负数时按刚启动处理
+        long uptime = Math.max(nowMillis - serviceMetaInfo.getRegisterTime(), 0);
+        int warmupWeight = (int) (uptime * weight / warmup);
+        return Math.max(warmupWeight, 1);
+    }
+
+    /**
+     * 获取节点预热结束的时间（毫秒），没有注册时间或没有配置预热时返回 0（不需要预热）
+     *
+     * @param serviceMetaInfo 节点信息
+     * @return
+     */
+    public static long getWarmupEndMillis(ServiceMetaInfo serviceMetaInfo) {
+        Long registerTime = serviceMetaInfo.getRegisterTime();
+        Long warmup = serviceMetaInfo.getWarmup();
+        if (registerTime == null || warmup == null || warmup <= 0) {
+            return 0;
+        }
+        return registerTime + warmup;
+    }
+}
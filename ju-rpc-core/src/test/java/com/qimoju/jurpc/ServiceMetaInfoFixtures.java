@@ -0,0 +1,47 @@
+package com.qimoju.jurpc;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试用的服务节点：同一服务的节点地址均为 127.0.0.1，端口从 8080 开始
+ */
+public class ServiceMetaInfoFixtures {
+
+    public static final int FIRST_PORT = 8080;
+
+    public static ServiceMetaInfo node(String serviceName, int port) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName(serviceName);
+        serviceMetaInfo.setServiceHost("127.0.0.1");
+        serviceMetaInfo.setServicePort(port);
+        return serviceMetaInfo;
+    }
+
+    public static List<ServiceMetaInfo> nodes(String serviceName, int count) {
+        List<ServiceMetaInfo> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(node(serviceName, FIRST_PORT + i));
+        }
+        return nodes;
+    }
+
+    /**
+     * 按顺序设置权重的节点
+     */
+    public static List<ServiceMetaInfo> weightedNodes(String serviceName, int... weights) {
+        List<ServiceMetaInfo> nodes = nodes(serviceName, weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            nodes.get(i).setWeight(weights[i]);
+        }
+        return nodes;
+    }
+
+    public static ServiceSnapshot snapshot(String serviceName, int count) {
+        List<ServiceMetaInfo> nodes = nodes(serviceName, count);
+        return ServiceSnapshot.of(nodes.get(0).getServiceKey(), nodes);
+    }
+}
@@ -0,0 +1,139 @@
+package com.qimoju.jurpc.benchmark;
+
+import com.qimoju.jurpc.loadbalancer.*;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 负载均衡模拟
+ * 多个调用线程按负载均衡器选择节点并记录节点调用统计（与 ServiceProxy 的调用链路一致），
+ * 节点用信号量模拟处理能力、用 sleep 模拟处理耗时，其中一个节点明显变慢。
+ * 比较各负载均衡器的吞吐量和 p50 / p99 延迟，直接运行 main 方法即可
+ */
+public class LoadBalancerSimulation {
+
+    private static final int NODE_COUNT = 5;
+
+    private static final int CLIENT_THREADS = 32;
+
+    /**
+     * 每个节点同时处理的请求数
+     */
+    private static final int NODE_CAPACITY = 8;
+
+    /**
+     * 正常节点 / 慢节点处理耗时（毫秒）
+     */
+    private static final long NORMAL_MILLIS = 2;
+
+    private static final long SLOW_MILLIS = 20;
+
+    private static final long DURATION_MILLIS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Supplier<LoadBalancer>> loadBalancers = new LinkedHashMap<>();
+        loadBalancers.put(LoadBalancerKeys.ROUND_ROBIN, RoundRobinLoadBalancer::new);
+        loadBalancers.put(LoadBalancerKeys.RANDOM, RandomLoadBalancer::new);
+        loadBalancers.put(LoadBalancerKeys.POWER_OF_TWO_CHOICES, PowerOfTwoChoicesLoadBalancer::new);
+        loadBalancers.put(LoadBalancerKeys.CONSISTENT_HASH, ConsistentHashLoadBalancer::new);
+        loadBalancers.put(LoadBalancerKeys.CONSISTENT_HASH_BOUNDED, () -> new ConsistentHashBoundedLoadBalancer(1.25));
+        loadBalancers.put(LoadBalancerKeys.LEAST_ACTIVE, LeastActiveLoadBalancer::new);
+        loadBalancers.put(LoadBalancerKeys.PEAK_EWMA, PeakEwmaLoadBalancer::new);
+
+        System.out.printf("%-24s %12s %10s %10s %10s%n", "loadBalancer", "throughput/s", "p50(ms)", "p99(ms)", "slow(%)");
+        for (Map.Entry<String, Supplier<LoadBalancer>> entry : loadBalancers.entrySet()) {
+            simulate(entry.getKey(), entry.getValue().get());
+        }
+    }
+
+    private static void simulate(String name, LoadBalancer loadBalancer) throws Exception {
+        // 每次模拟使用不同的服务名，节点统计互不影响
+        String serviceName = "simulation." + name;
+        List<ServiceMetaInfo> serviceMetaInfoList = new ArrayList<>();
+        Map<String, Semaphore> capacityMap = new HashMap<>();
+        Map<String, Long> serviceTimeMap = new HashMap<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+            serviceMetaInfo.setServiceName(serviceName);
+            serviceMetaInfo.setServiceHost("127.0.0.1");
+            serviceMetaInfo.setServicePort(8080 + i);
+            serviceMetaInfoList.add(serviceMetaInfo);
+            capacityMap.put(serviceMetaInfo.getServiceNodeKey(), new Semaphore(NODE_CAPACITY, true));
+            // 第一个节点为慢节点
+            serviceTimeMap.put(serviceMetaInfo.getServiceNodeKey(), i == 0 ? SLOW_MILLIS : NORMAL_MILLIS);
+        }
+        ServiceSnapshot serviceSnapshot = ServiceSnapshot.of(serviceMetaInfoList.get(0).getServiceKey(), serviceMetaInfoList);
+        String slowNodeKey = serviceMetaInfoList.get(0).getServiceNodeKey();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CLIENT_THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            futures.add(executorService.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                int slowCount = 0;
+                while (System.nanoTime() < deadline) {
+                    Map<String, Object> requestParams = Map.of(
+                            LoadBalancerParamKeys.METHOD_NAME, "getUser",
+                            LoadBalancerParamKeys.HASH_KEY, ThreadLocalRandom.current().nextInt(10000));
+                    ServiceMetaInfo selected = loadBalancer.select(requestParams, serviceSnapshot);
+                    String nodeKey = selected.getServiceNodeKey();
+                    ServiceNodeStats serviceNodeStats = ServiceNodeStats.of(selected);
+                    serviceNodeStats.beginRequest();
+                    long startNanos = System.nanoTime();
+                    Semaphore capacity = capacityMap.get(nodeKey);
+                    capacity.acquire();
+                    try {
+                        Thread.sleep(serviceTimeMap.get(nodeKey));
+                    } finally {
+                        capacity.release();
+                    }
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    serviceNodeStats.endRequest(elapsedNanos, true);
+
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsedNanos;
+                    if (nodeKey.equals(slowNodeKey)) {
+                        slowCount++;
+                    }
+                }
+                // 最后一个元素记录发往慢节点的请求数
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = slowCount;
+                return result;
+            }));
+        }
+
+        long[] all = new long[0];
+        long slowTotal = 0;
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            int count = result.length - 1;
+            slowTotal += result[count];
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + count);
+            System.arraycopy(result, 0, all, offset, count);
+        }
+        executorService.shutdown();
+
+        Arrays.sort(all);
+        double throughput = all.length * 1000.0 / DURATION_MILLIS;
+        System.out.printf("%-24s %12.0f %10.2f %10.2f %10.1f%n", name, throughput,
+                percentile(all, 0.50), percentile(all, 0.99), slowTotal * 100.0 / all.length);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.qimoju.jurpc.benchmark;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.protocol.*;
+import com.qimoju.jurpc.serializer.Serializer;
+import com.qimoju.jurpc.serializer.SerializerFactory;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 协议消息编码基准测试
+ * 比较原编码方式（序列化为字节数组，再和消息头一起追加到可增长的堆 Buffer）
+ * 与池化直接内存编码（序列化器直接写入消息头之后，回填消息体长度）在不同消息体大小下的耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtocolMessageEncoderBenchmark {
+
+    /**
+     * 响应数据大小（字节）：100 B、10 KB、1 MB
+     */
+    @Param({"100", "10240", "1048576"})
+    private int payloadSize;
+
+    @Param({"jdk", "hessian", "kryo", "protostuff"})
+    private String serializer;
+
+    private ProtocolMessage<RpcResponse> protocolMessage;
+
+    @Setup
+    public void setup() {
+        // 序列化器按全局配置创建，使用不连接外部服务的注册中心初始化
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getRegistryConfig().setRegistry("static");
+        RpcApplication.init(rpcConfig);
+
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.getEnumByValue(serializer).getKey());
+        header.setType((byte) ProtocolMessageTypeEnum.RESPONSE.getKey());
+        header.setStatus((byte) ProtocolMessageStatusEnum.OK.getValue());
+        header.setRequestId(1L);
+
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData(new byte[payloadSize]);
+        rpcResponse.setDataType(byte[].class);
+        rpcResponse.setMessage("ok");
+        protocolMessage = new ProtocolMessage<>(header, rpcResponse);
+    }
+
+    @Benchmark
+    public Buffer legacyEncode() throws IOException {
+        return legacyEncode(protocolMessage);
+    }
+
+    @Benchmark
+    public int pooledEncode() throws IOException {
+        ByteBuf byteBuf = ProtocolMessageEncoder.encodePooled(protocolMessage);
+        int length = byteBuf.readableBytes();
+        byteBuf.release();
+        return length;
+    }
+
+    /**
+     * 原编码方式（改为池化编码之前的 ProtocolMessageEncoder.encode）
+     */
+    private static Buffer legacyEncode(ProtocolMessage<?> protocolMessage) throws IOException {
+        ProtocolMessage.Header header = protocolMessage.getHeader();
+        Buffer buffer = Buffer.buffer();
+        buffer.appendByte(header.getMagic());
+        buffer.appendByte(header.getVersion());
+        buffer.appendByte(header.getSerializer());
+        buffer.appendByte(header.getType());
+        buffer.appendByte(header.getStatus());
+        buffer.appendLong(header.getRequestId());
+        ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
+        Serializer serializer = SerializerFactory.getInstance(serializerEnum.getValue());
+        byte[] bodyBytes = serializer.serialize(protocolMessage.getBody());
+        buffer.appendInt(bodyBytes.length);
+        buffer.appendBytes(bodyBytes);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProtocolMessageEncoderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.qimoju.jurpc.benchmark;
+
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.server.executor.FixedRequestExecutor;
+import com.qimoju.jurpc.server.executor.RequestExecutor;
+import com.qimoju.jurpc.server.executor.RequestExecutorKeys;
+import com.qimoju.jurpc.server.executor.VirtualThreadRequestExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端请求执行器基准测试
+ * 模拟服务方法中的阻塞调用（JDBC、HTTP），比较固定线程池和虚拟线程执行器的吞吐量。
+ * 在 JDK 21 以下运行时虚拟线程执行器会退化为平台线程池
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestExecutorBenchmark {
+
+    /**
+     * 每次操作提交的请求数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({RequestExecutorKeys.FIXED, RequestExecutorKeys.VIRTUAL})
+    private String executor;
+
+    /**
+     * 服务方法阻塞时间（毫秒）
+     */
+    @Param({"5", "20"})
+    private long blockingMillis;
+
+    private RequestExecutor requestExecutor;
+
+    private final RpcRequest rpcRequest = RpcRequest.builder()
+            .serviceName("com.qimoju.example.common.service.UserService")
+            .methodName("getUser")
+            .build();
+
+    @Setup
+    public void setup() {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.setServerExecutorQueueSize(BATCH_SIZE);
+        requestExecutor = RequestExecutorKeys.VIRTUAL.equals(executor)
+                ? new VirtualThreadRequestExecutor(rpcConfig)
+                : new FixedRequestExecutor(rpcConfig);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestExecutor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void blockingInvoke() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requestExecutor.execute(rpcRequest, () -> {
+                try {
+                    Thread.sleep(blockingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestExecutorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
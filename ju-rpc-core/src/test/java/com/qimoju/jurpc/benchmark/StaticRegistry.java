@@ -0,0 +1,54 @@
+package com.qimoju.jurpc.benchmark;
+
+import com.qimoju.jurpc.config.RegistryConfig;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.Registry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 基准测试用注册中心，服务节点保存在内存中，不连接外部注册中心
+ */
+public class StaticRegistry implements Registry {
+
+    private final Map<String, List<ServiceMetaInfo>> serviceMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void init(RegistryConfig registryConfig) {
+    }
+
+    @Override
+    public void register(ServiceMetaInfo serviceMetaInfo) {
+        serviceMap.computeIfAbsent(serviceMetaInfo.getServiceKey(), key -> new CopyOnWriteArrayList<>())
+                .add(serviceMetaInfo);
+    }
+
+    @Override
+    public void unRegister(ServiceMetaInfo serviceMetaInfo) {
+        List<ServiceMetaInfo> serviceMetaInfoList = serviceMap.get(serviceMetaInfo.getServiceKey());
+        if (serviceMetaInfoList != null) {
+            serviceMetaInfoList.remove(serviceMetaInfo);
+        }
+    }
+
+    @Override
+    public List<ServiceMetaInfo> serviceDiscovery(String serviceKey) {
+        return serviceMap.get(serviceKey);
+    }
+
+    @Override
+    public void destroy() {
+        serviceMap.clear();
+    }
+
+    @Override
+    public void heartBeat() {
+    }
+
+    @Override
+    public void watch(String serviceKey) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.qimoju.jurpc.ServiceMetaInfoFixtures.node;
+import static com.qimoju.jurpc.ServiceMetaInfoFixtures.nodes;
+import static com.qimoju.jurpc.ServiceMetaInfoFixtures.snapshot;
+import static org.junit.Assert.*;
+
+/**
+ * 一致性哈希环的查找，以及按快照版本缓存哈希环
+ */
+public class ConsistentHashLoadBalancerTest {
+
+    private static final String SERVICE_NAME = "com.qimoju.test.ConsistentHashService";
+
+    /**
+     * 重写了 equals / hashCode、没有重写 toString 的哈希键
+     */
+    static class UserKey {
+
+        private final String tenant;
+
+        private final long userId;
+
+        UserKey(String tenant, long userId) {
+            this.tenant = tenant;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof UserKey)) {
+                return false;
+            }
+            UserKey userKey = (UserKey) o;
+            return userId == userKey.userId && tenant.equals(userKey.tenant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, userId);
+        }
+    }
+
+    /**
+     * 没有重写 hashCode 的哈希键
+     */
+    static class IdentityKey {
+    }
+
+    @Test
+    public void ringSelectsNodeOwningVirtualNodeHash() {
+        List<ServiceMetaInfo> nodes = nodes(SERVICE_NAME, 3);
+        ConsistentHashLoadBalancer.HashRing ring = new ConsistentHashLoadBalancer.HashRing(nodes);
+
+        assertEquals(3 * 160, ring.size());
+        for (ServiceMetaInfo node : nodes) {
+            long virtualNodeHash = ConsistentHashLoadBalancer.getHash(node.getServiceNodeKey() + "#7");
+            assertSame(node, ring.select(virtualNodeHash));
+        }
+    }
+
+    @Test
+    public void ringWrapsAroundPastLastVirtualNode() {
+        ConsistentHashLoadBalancer.HashRing ring = new ConsistentHashLoadBalancer.HashRing(nodes(SERVICE_NAME, 3));
+
+        assertEquals(0, ring.indexOf(Long.MAX_VALUE));
+        assertEquals(0, ring.indexOf(Long.MIN_VALUE));
+        assertSame(ring.nodeAt(0), ring.select(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void sameHashKeySelectsSameNode() {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        ServiceSnapshot snapshot = snapshot(SERVICE_NAME, 5);
+        Set<ServiceMetaInfo> selected = new HashSet<>();
+        for (int key = 0; key < 1000; key++) {
+            ServiceMetaInfo first = loadBalancer.select(params(key), snapshot);
+            assertSame(first, loadBalancer.select(params(key), snapshot));
+            selected.add(first);
+        }
+        // 不同的键分布到所有节点上
+        assertEquals(5, selected.size());
+    }
+
+    @Test
+    public void removingNodeOnlyRemapsItsKeys() {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        ServiceSnapshot snapshot = snapshot(SERVICE_NAME, 5);
+        ServiceMetaInfo removedNode = snapshot.get(2);
+        ServiceSnapshot shrunk = snapshot.withoutNode(removedNode.getServiceNodeKey());
+        for (int key = 0; key < 1000; key++) {
+            ServiceMetaInfo before = loadBalancer.select(params(key), snapshot);
+            ServiceMetaInfo after = loadBalancer.select(params(key), shrunk);
+            if (before != removedNode) {
+                assertSame(before, after);
+            } else {
+                assertNotSame(removedNode, after);
+            }
+        }
+    }
+
+    @Test
+    public void equalObjectKeysSelectSameNode() {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer();
+        ServiceSnapshot snapshot = snapshot(SERVICE_NAME, 5);
+        Set<ServiceMetaInfo> selected = new HashSet<>();
+        for (long userId = 0; userId < 100; userId++) {
+            Map<String, Object> first = Map.of(LoadBalancerParamKeys.METHOD_NAME, "getUser",
+                    LoadBalancerParamKeys.HASH_KEY, new UserKey("t1", userId));
+            Map<String, Object> second = Map.of(LoadBalancerParamKeys.METHOD_NAME, "getUser",
+                    LoadBalancerParamKeys.HASH_KEY, new UserKey("t1", userId));
+
+            // 键只取决于对象的值，不取决于对象实例
+            assertEquals(ConsistentHashLoadBalancer.getHashKey(first), ConsistentHashLoadBalancer.getHashKey(second));
+            ServiceMetaInfo node = loadBalancer.select(first, snapshot);
+            assertSame(node, loadBalancer.select(second, snapshot));
+            selected.add(node);
+        }
+        assertTrue(selected.size() > 1);
+    }
+
+    @Test
+    public void hashKeyTypeMustOverrideHashCode() {
+        ConsistentHashLoadBalancer.checkHashKeyType(UserKey.class);
+        ConsistentHashLoadBalancer.checkHashKeyType(Long.class);
+        ConsistentHashLoadBalancer.checkHashKeyType(long.class);
+        ConsistentHashLoadBalancer.checkHashKeyType(Object.class);
+
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashLoadBalancer.checkHashKeyType(IdentityKey.class));
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashLoadBalancer.checkHashKeyType(long[].class));
+    }
+
+    @Test
+    public void ringCachedUntilSnapshotVersionChanges() {
+        VersionedStateCache<ConsistentHashLoadBalancer.HashRing> ringCache =
+                new VersionedStateCache<>(ConsistentHashLoadBalancer.HashRing::new);
+        ServiceSnapshot snapshot = snapshot(SERVICE_NAME, 3);
+
+        ConsistentHashLoadBalancer.HashRing ring = ringCache.get(snapshot);
+        assertSame(ring, ringCache.get(snapshot));
+
+        ServiceSnapshot grown = snapshot.withNode(node(SERVICE_NAME, 9000));
+        ConsistentHashLoadBalancer.HashRing rebuilt = ringCache.get(grown);
+        assertNotSame(ring, rebuilt);
+        assertEquals(4 * 160, rebuilt.size());
+        assertSame(rebuilt, ringCache.get(grown));
+        // 旧快照不会覆盖新版本的缓存
+        ringCache.get(snapshot);
+        assertSame(rebuilt, ringCache.get(grown));
+    }
+
+    @Test
+    public void plainListRebuildsRingEveryTime() {
+        VersionedStateCache<ConsistentHashLoadBalancer.HashRing> ringCache =
+                new VersionedStateCache<>(ConsistentHashLoadBalancer.HashRing::new);
+        List<ServiceMetaInfo> nodes = nodes(SERVICE_NAME, 3);
+
+        assertNotSame(ringCache.get(nodes), ringCache.get(nodes));
+    }
+
+    private static Map<String, Object> params(int key) {
+        return Map.of(LoadBalancerParamKeys.METHOD_NAME, "getUser", LoadBalancerParamKeys.HASH_KEY, key);
+    }
+}
@@ -0,0 +1,60 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 响应时间的 Peak EWMA
+ */
+public class ServiceNodeStatsTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void slowerSampleBecomesPeak() {
+        ServiceNodeStats stats = new ServiceNodeStats();
+        long now = System.nanoTime();
+        stats.updateEwma(now, 2 * MILLIS, false);
+        stats.updateEwma(now + MILLIS, 20 * MILLIS, false);
+
+        assertEquals(20 * MILLIS, stats.getPeakEwmaLoad(now + MILLIS), 1);
+    }
+
+    @Test
+    public void steadySamplesConvergeToResponseTime() {
+        ServiceNodeStats stats = new ServiceNodeStats();
+        long now = System.nanoTime();
+        stats.updateEwma(now, 10 * MILLIS, false);
+        for (int i = 1; i <= 200; i++) {
+            now += SECOND;
+            stats.updateEwma(now, MILLIS, false);
+        }
+
+        // 旧值只按时间衰减一次，收敛到样本值而不是更低
+        assertEquals(MILLIS, stats.getPeakEwmaLoad(now), MILLIS * 0.01);
+    }
+
+    @Test
+    public void failureDoesNotLowerCost() {
+        ServiceNodeStats stats = new ServiceNodeStats();
+        long now = System.nanoTime();
+        stats.updateEwma(now, 10 * MILLIS, false);
+        stats.updateEwma(now + SECOND, MILLIS, true);
+
+        assertEquals(10 * MILLIS * Math.exp(-0.1), stats.getPeakEwmaLoad(now + SECOND), 1);
+    }
+
+    @Test
+    public void costDecaysWithoutSamples() {
+        ServiceNodeStats stats = new ServiceNodeStats();
+        long now = System.nanoTime();
+        stats.updateEwma(now, 10 * MILLIS, false);
+
+        assertEquals(10 * MILLIS * Math.exp(-1), stats.getPeakEwmaLoad(now + 10 * SECOND), 1);
+    }
+}
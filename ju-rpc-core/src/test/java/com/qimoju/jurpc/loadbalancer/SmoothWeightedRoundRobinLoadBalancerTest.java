@@ -0,0 +1,60 @@
+package com.qimoju.jurpc.loadbalancer;
+
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.ServiceSnapshot;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.qimoju.jurpc.ServiceMetaInfoFixtures.weightedNodes;
+import static org.junit.Assert.*;
+
+/**
+ * 平滑加权轮询的选择顺序
+ */
+public class SmoothWeightedRoundRobinLoadBalancerTest {
+
+    private static final String SERVICE_NAME = "com.qimoju.test.WeightedService";
+
+    @Test
+    public void weights511FollowSmoothSequence() {
+        SmoothWeightedRoundRobinLoadBalancer.WeightedRoundRobin roundRobin =
+                new SmoothWeightedRoundRobinLoadBalancer.WeightedRoundRobin(weightedNodes(SERVICE_NAME, 5, 1, 1));
+
+        // 与 Nginx 相同：a a b a c a a，之后按同样的顺序循环
+        int[] expected = {0, 0, 1, 0, 2, 0, 0};
+        for (int round = 0; round < 3; round++) {
+            int[] actual = new int[expected.length];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = roundRobin.next();
+            }
+            assertArrayEquals("第 " + round + " 轮", expected, actual);
+        }
+    }
+
+    @Test
+    public void selectionsFollowWeightRatio() {
+        SmoothWeightedRoundRobinLoadBalancer loadBalancer = new SmoothWeightedRoundRobinLoadBalancer();
+        List<ServiceMetaInfo> nodes = weightedNodes(SERVICE_NAME, 3, 2, 0);
+        ServiceSnapshot snapshot = ServiceSnapshot.of(nodes.get(0).getServiceKey(), nodes);
+        int[] counts = new int[nodes.size()];
+        for (int i = 0; i < 500; i++) {
+            counts[nodes.indexOf(loadBalancer.select(Collections.emptyMap(), snapshot))]++;
+        }
+
+        assertArrayEquals(new int[]{300, 200, 0}, counts);
+    }
+
+    @Test
+    public void allZeroWeightsFallBackToRoundRobin() {
+        SmoothWeightedRoundRobinLoadBalancer.WeightedRoundRobin roundRobin =
+                new SmoothWeightedRoundRobinLoadBalancer.WeightedRoundRobin(weightedNodes(SERVICE_NAME, 0, 0, 0));
+
+        int[] actual = new int[6];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = roundRobin.next();
+        }
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2}, actual);
+    }
+}
@@ -0,0 +1,110 @@
+package com.qimoju.jurpc.protocol;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.utils.BufferUtils;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * 协议消息编解码：每种序列化器编码到池化缓冲区后回填的消息体长度正确，并能解码回原消息
+ */
+public class ProtocolMessageCodecTest {
+
+    @BeforeClass
+    public static void init() {
+        // 序列化器按全局配置创建，使用不连接外部服务的注册中心初始化
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getRegistryConfig().setRegistry("static");
+        RpcApplication.init(rpcConfig);
+    }
+
+    @Test
+    public void requestRoundTripsForEverySerializer() throws IOException {
+        for (ProtocolMessageSerializerEnum serializerEnum : ProtocolMessageSerializerEnum.values()) {
+            RpcRequest rpcRequest = new RpcRequest("com.qimoju.test.UserService", "getUser", "1.0",
+                    new Class<?>[]{String.class}, new Object[]{"hello"}, 1000L);
+            ProtocolMessage<RpcRequest> protocolMessage =
+                    new ProtocolMessage<>(header(serializerEnum, ProtocolMessageTypeEnum.REQUEST, 42L), rpcRequest);
+
+            ProtocolMessage<?> decoded = encodeAndDecode(protocolMessage, serializerEnum);
+
+            assertEquals(42L, decoded.getHeader().getRequestId());
+            RpcRequest decodedRequest = (RpcRequest) decoded.getBody();
+            String serializer = serializerEnum.getValue();
+            assertEquals(serializer, rpcRequest.getServiceName(), decodedRequest.getServiceName());
+            assertEquals(serializer, rpcRequest.getMethodName(), decodedRequest.getMethodName());
+            assertArrayEquals(serializer, rpcRequest.getParameterTypes(), decodedRequest.getParameterTypes());
+            assertArrayEquals(serializer, rpcRequest.getArgs(), decodedRequest.getArgs());
+            assertEquals(serializer, 1000L, decodedRequest.getTimeout());
+        }
+    }
+
+    @Test
+    public void responseRoundTripsForEverySerializer() throws IOException {
+        for (ProtocolMessageSerializerEnum serializerEnum : ProtocolMessageSerializerEnum.values()) {
+            RpcResponse rpcResponse = new RpcResponse();
+            // 超过编码缓冲区初始容量，需要扩容
+            rpcResponse.setData("x".repeat(1000));
+            rpcResponse.setDataType(String.class);
+            rpcResponse.setMessage("ok");
+            ProtocolMessage<RpcResponse> protocolMessage =
+                    new ProtocolMessage<>(header(serializerEnum, ProtocolMessageTypeEnum.RESPONSE, 7L), rpcResponse);
+
+            ProtocolMessage<?> decoded = encodeAndDecode(protocolMessage, serializerEnum);
+
+            assertEquals(7L, decoded.getHeader().getRequestId());
+            RpcResponse decodedResponse = (RpcResponse) decoded.getBody();
+            String serializer = serializerEnum.getValue();
+            assertEquals(serializer, rpcResponse.getData(), decodedResponse.getData());
+            assertEquals(serializer, String.class, decodedResponse.getDataType());
+            assertEquals(serializer, "ok", decodedResponse.getMessage());
+        }
+    }
+
+    /**
+     * 分别编码到池化缓冲区和堆缓冲区，检查回填的消息体长度和两种方式的字节一致，再解码池化编码的结果
+     */
+    private static ProtocolMessage<?> encodeAndDecode(ProtocolMessage<?> protocolMessage,
+                                                      ProtocolMessageSerializerEnum serializerEnum) throws IOException {
+        String serializer = serializerEnum.getValue();
+        ByteBuf pooled = ProtocolMessageEncoder.encodePooled(protocolMessage);
+        try {
+            int bodyLength = pooled.readableBytes() - ProtocolConstant.MESSAGE_HEADER_LENGTH;
+            assertTrue(serializer, bodyLength > 0);
+            assertEquals(serializer, bodyLength, pooled.getInt(ProtocolConstant.BODY_LENGTH_OFFSET));
+
+            Buffer heap = ProtocolMessageEncoder.encode(protocolMessage);
+            byte[] pooledBytes = new byte[pooled.readableBytes()];
+            pooled.getBytes(pooled.readerIndex(), pooledBytes);
+            assertArrayEquals(serializer, heap.getBytes(), pooledBytes);
+
+            ProtocolMessage<?> decoded = ProtocolMessageDecoder.decode(BufferUtils.wrap(pooled));
+            assertEquals(serializer, bodyLength, decoded.getHeader().getBodyLength());
+            assertEquals(serializer, (byte) serializerEnum.getKey(), decoded.getHeader().getSerializer());
+            return decoded;
+        } finally {
+            pooled.release();
+        }
+    }
+
+    private static ProtocolMessage.Header header(ProtocolMessageSerializerEnum serializerEnum,
+                                                 ProtocolMessageTypeEnum typeEnum, long requestId) {
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) serializerEnum.getKey());
+        header.setType((byte) typeEnum.getKey());
+        header.setStatus((byte) ProtocolMessageStatusEnum.OK.getValue());
+        header.setRequestId(requestId);
+        return header;
+    }
+}
@@ -0,0 +1,86 @@
+package com.qimoju.jurpc.proxy;
+
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.RegistryFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务代理开销基准测试
+ * 使用内存注册中心和不发起网络请求的 RequestSender，只测量代理本身（构造请求、服务发现、负载均衡、重试、容错）的开销，
+ * 比较 JDK 动态代理和 Javassist 生成的代理类
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceProxyBenchmark {
+
+    public interface EchoService {
+
+        String echo(String message);
+
+        CompletableFuture<String> echoAsync(String message);
+    }
+
+    @Param({ProxyKeys.JDK, ProxyKeys.JAVASSIST})
+    private String proxy;
+
+    private EchoService echoService;
+
+    private final String message = "hello";
+
+    @Setup
+    public void setup() throws Exception {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getRegistryConfig().setRegistry("static");
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName(EchoService.class.getName());
+        serviceMetaInfo.setServiceHost("localhost");
+        serviceMetaInfo.setServicePort(8080);
+        RegistryFactory.getInstance("static").register(serviceMetaInfo);
+
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData(message);
+        CompletableFuture<RpcResponse> responseFuture = CompletableFuture.completedFuture(rpcResponse);
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig,
+                (rpcRequest, selected) -> responseFuture);
+        if (ProxyKeys.JAVASSIST.equals(proxy)) {
+            echoService = JavassistProxyGenerator.newProxyInstance(EchoService.class, serviceProxy);
+        } else {
+            echoService = (EchoService) Proxy.newProxyInstance(
+                    EchoService.class.getClassLoader(),
+                    new Class<?>[]{EchoService.class},
+                    serviceProxy
+            );
+        }
+    }
+
+    @Benchmark
+    public String sync() {
+        return echoService.echo(message);
+    }
+
+    @Benchmark
+    public String async() {
+        return echoService.echoAsync(message).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ServiceProxyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
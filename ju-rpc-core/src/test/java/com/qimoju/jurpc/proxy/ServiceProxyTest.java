@@ -0,0 +1,152 @@
+package com.qimoju.jurpc.proxy;
+
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.fault.retry.RetryStrategyKeys;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import com.qimoju.jurpc.registry.RegistryFactory;
+import com.qimoju.jurpc.router.RouterKeys;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 服务代理的超时时间：整个调用（包括重试）共用一个截止时间，每次发送使用带剩余时间的请求副本
+ */
+public class ServiceProxyTest {
+
+    public interface EchoService {
+
+        String echo(String message);
+
+        CompletableFuture<String> echoAsync(String message);
+    }
+
+    @BeforeClass
+    public static void registerService() throws Exception {
+        for (int port = 8080; port < 8083; port++) {
+            ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+            serviceMetaInfo.setServiceName(EchoService.class.getName());
+            serviceMetaInfo.setServiceHost("localhost");
+            serviceMetaInfo.setServicePort(port);
+            RegistryFactory.getInstance("static").register(serviceMetaInfo);
+        }
+    }
+
+    @Test
+    public void eachAttemptSendsCopyWithRemainingTimeout() throws Exception {
+        List<RpcRequest> sent = new ArrayList<>();
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData("hello");
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig(1000L, RetryStrategyKeys.NO),
+                (rpcRequest, selected) -> {
+                    sent.add(rpcRequest);
+                    return CompletableFuture.completedFuture(rpcResponse);
+                });
+        InvocationDescriptor descriptor = serviceProxy.getDescriptor(EchoService.class.getMethod("echo", String.class));
+
+        assertEquals("hello", serviceProxy.invoke(descriptor, new Object[]{"hello"}));
+        assertEquals(1, sent.size());
+        long timeout = sent.get(0).getTimeout();
+        assertTrue(timeout > 0 && timeout <= 1000);
+    }
+
+    @Test
+    public void retriesStopAtDeadline() throws Exception {
+        List<RpcRequest> sent = new ArrayList<>();
+        // 固定间隔重试等待 3 秒，等待后已超过 500ms 的截止时间，不再等待和重试
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig(500L, RetryStrategyKeys.FIXED_INTERVAL),
+                (rpcRequest, selected) -> {
+                    sent.add(rpcRequest);
+                    return CompletableFuture.failedFuture(new RuntimeException("服务端错误"));
+                });
+        InvocationDescriptor descriptor = serviceProxy.getDescriptor(EchoService.class.getMethod("echo", String.class));
+
+        long startNanos = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> serviceProxy.invoke(descriptor, new Object[]{"hello"}));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 1000);
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void asyncRetriesStopAtDeadline() throws Exception {
+        List<RpcRequest> sent = new ArrayList<>();
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig(500L, RetryStrategyKeys.FIXED_INTERVAL),
+                (rpcRequest, selected) -> {
+                    sent.add(rpcRequest);
+                    return CompletableFuture.failedFuture(new RuntimeException("服务端错误"));
+                });
+        InvocationDescriptor descriptor = serviceProxy.getDescriptor(EchoService.class.getMethod("echoAsync", String.class));
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<?> result = (CompletableFuture<?>) serviceProxy.invoke(descriptor, new Object[]{"hello"});
+
+        assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 1000);
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void asyncInvokerCallsThroughProxyInvoker() throws Exception {
+        List<RpcRequest> sent = new ArrayList<>();
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData("hello");
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig(1000L, RetryStrategyKeys.NO),
+                (rpcRequest, selected) -> {
+                    sent.add(rpcRequest);
+                    return CompletableFuture.completedFuture(rpcResponse);
+                });
+
+        AsyncServiceInvoker<EchoService> remote = new AsyncServiceInvoker<>(EchoService.class, serviceProxy);
+        AsyncServiceInvoker<EchoService> mock = new AsyncServiceInvoker<>(EchoService.class, new MockServiceProxy());
+
+        assertEquals("hello", remote.call(echoService -> echoService.echo("hello")).get(1, TimeUnit.SECONDS));
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).getTimeout() <= 1000);
+        // mock 调用返回默认值，不发送请求
+        assertNull(mock.call(echoService -> echoService.echo("hello")).get(1, TimeUnit.SECONDS));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void routerBuiltFromReferenceConfig() throws Exception {
+        Set<Integer> ports = new HashSet<>();
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData("hello");
+        RpcConfig rpcConfig = rpcConfig(1000L, RetryStrategyKeys.NO);
+        // 子集路由按本次引用的配置只使用一个节点，而不是全局配置的子集大小
+        rpcConfig.setRouter(RouterKeys.SUBSET);
+        rpcConfig.setSubsetSize(1);
+        ServiceProxy serviceProxy = new ServiceProxy(EchoService.class, rpcConfig,
+                (rpcRequest, selected) -> {
+                    ports.add(selected.getServicePort());
+                    return CompletableFuture.completedFuture(rpcResponse);
+                });
+        InvocationDescriptor descriptor = serviceProxy.getDescriptor(EchoService.class.getMethod("echo", String.class));
+
+        for (int i = 0; i < 6; i++) {
+            serviceProxy.invoke(descriptor, new Object[]{"hello"});
+        }
+
+        assertEquals(1, ports.size());
+    }
+
+    private static RpcConfig rpcConfig(long timeout, String retryStrategy) {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getRegistryConfig().setRegistry("static");
+        rpcConfig.setTimeout(timeout);
+        rpcConfig.setRetryStrategy(retryStrategy);
+        return rpcConfig;
+    }
+}
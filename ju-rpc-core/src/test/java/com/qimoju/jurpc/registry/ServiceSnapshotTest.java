@@ -0,0 +1,126 @@
+package com.qimoju.jurpc.registry;
+
+import com.qimoju.jurpc.ServiceMetaInfoFixtures;
+import com.qimoju.jurpc.loadbalancer.ServiceNodeStats;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * 服务节点快照和注册中心服务缓存的增量更新
+ */
+public class ServiceSnapshotTest {
+
+    private static final String SERVICE_NAME = "com.qimoju.test.UserService";
+
+    @Test
+    public void withNodeAddsNodeAndBumpsVersion() {
+        ServiceSnapshot snapshot = ServiceSnapshot.of(serviceKey(), Collections.singletonList(node(8080)));
+
+        ServiceSnapshot added = snapshot.withNode(node(8081));
+
+        assertNotSame(snapshot, added);
+        assertTrue(added.getVersion() > snapshot.getVersion());
+        assertEquals(2, added.size());
+        assertEquals(8081, (int) added.get(1).getServicePort());
+        // 原快照不变
+        assertEquals(1, snapshot.size());
+    }
+
+    @Test
+    public void withNodeReplacesChangedNodeInPlace() {
+        ServiceSnapshot snapshot = ServiceSnapshot.of(serviceKey(), Arrays.asList(node(8080), node(8081)));
+        ServiceMetaInfo updated = node(8080);
+        updated.setWeight(50);
+
+        ServiceSnapshot replaced = snapshot.withNode(updated);
+
+        assertTrue(replaced.getVersion() > snapshot.getVersion());
+        assertEquals(2, replaced.size());
+        assertEquals(50, (int) replaced.get(0).getWeight());
+        assertEquals(8081, (int) replaced.get(1).getServicePort());
+    }
+
+    @Test
+    public void withNodeKeepsSnapshotWhenNodeUnchanged() {
+        ServiceSnapshot snapshot = ServiceSnapshot.of(serviceKey(), Collections.singletonList(node(8080)));
+
+        assertSame(snapshot, snapshot.withNode(node(8080)));
+    }
+
+    @Test
+    public void withoutNodeRemovesNodeAndBumpsVersion() {
+        ServiceSnapshot snapshot = ServiceSnapshot.of(serviceKey(), Arrays.asList(node(8080), node(8081), node(8082)));
+
+        ServiceSnapshot removed = snapshot.withoutNode(node(8081).getServiceNodeKey());
+
+        assertTrue(removed.getVersion() > snapshot.getVersion());
+        assertEquals(2, removed.size());
+        assertEquals(8080, (int) removed.get(0).getServicePort());
+        assertEquals(8082, (int) removed.get(1).getServicePort());
+    }
+
+    @Test
+    public void withoutNodeKeepsSnapshotWhenNodeMissing() {
+        ServiceSnapshot snapshot = ServiceSnapshot.of(serviceKey(), Collections.singletonList(node(8080)));
+
+        assertSame(snapshot, snapshot.withoutNode(node(9090).getServiceNodeKey()));
+    }
+
+    @Test
+    public void cacheAppliesNodeChangesOnlyToCachedServices() {
+        RegistryServiceCache cache = new RegistryServiceCache();
+        String serviceKey = serviceKey();
+        // 未缓存的服务忽略增量更新
+        cache.putNode(serviceKey, node(8080));
+        assertNull(cache.readCache(serviceKey));
+
+        ServiceSnapshot written = cache.writeCache(serviceKey, Collections.singletonList(node(8080)));
+        cache.putNode(serviceKey, node(8081));
+        ServiceSnapshot afterPut = cache.readCache(serviceKey);
+        assertTrue(afterPut.getVersion() > written.getVersion());
+        assertEquals(2, afterPut.size());
+
+        cache.removeNode(serviceKey, node(8080).getServiceNodeKey());
+        ServiceSnapshot afterRemove = cache.readCache(serviceKey);
+        assertTrue(afterRemove.getVersion() > afterPut.getVersion());
+        assertEquals(1, afterRemove.size());
+        assertEquals(8081, (int) afterRemove.get(0).getServicePort());
+
+        cache.clearCache(serviceKey);
+        assertNull(cache.readCache(serviceKey));
+    }
+
+    @Test
+    public void cacheRemovesStatsOfNodesThatLeft() {
+        RegistryServiceCache cache = new RegistryServiceCache();
+        String serviceKey = serviceKey();
+        cache.writeCache(serviceKey, Arrays.asList(node(8080), node(8081), node(8082)));
+        ServiceNodeStats stats8080 = ServiceNodeStats.of(node(8080));
+        ServiceNodeStats stats8081 = ServiceNodeStats.of(node(8081));
+        ServiceNodeStats stats8082 = ServiceNodeStats.of(node(8082));
+
+        // 监听到节点下线
+        cache.removeNode(serviceKey, node(8080).getServiceNodeKey());
+        assertNotSame(stats8080, ServiceNodeStats.of(node(8080)));
+        // 全量刷新时不在新列表中的节点
+        cache.writeCache(serviceKey, Collections.singletonList(node(8082)));
+        assertNotSame(stats8081, ServiceNodeStats.of(node(8081)));
+        // 仍在线的节点保留统计
+        assertSame(stats8082, ServiceNodeStats.of(node(8082)));
+
+        cache.clearCache();
+    }
+
+    private static String serviceKey() {
+        return node(8080).getServiceKey();
+    }
+
+    private static ServiceMetaInfo node(int port) {
+        return ServiceMetaInfoFixtures.node(SERVICE_NAME, port);
+    }
+}
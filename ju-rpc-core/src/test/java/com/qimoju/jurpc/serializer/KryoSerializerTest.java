@@ -0,0 +1,127 @@
+package com.qimoju.jurpc.serializer;
+
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kryo 序列化器的类注册模式：注册的类只取决于配置的类列表
+ */
+public class KryoSerializerTest {
+
+    public static class User {
+
+        private String name;
+
+        private Address address;
+
+        public User() {
+        }
+
+        User(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+    }
+
+    public static class Address {
+
+        private String city;
+
+        public Address() {
+        }
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    /**
+     * 不在注册列表中的类
+     */
+    public static class Order {
+
+        private long id;
+
+        public Order() {
+        }
+
+        Order(long id) {
+            this.id = id;
+        }
+    }
+
+    public interface UserService {
+
+        User getUser(String name);
+    }
+
+    @Test
+    public void registrationsDependOnlyOnConfiguredClasses() {
+        List<Class<?>> classes = Arrays.asList(UserService.class, Order.class);
+        List<Class<?>> reversed = Arrays.asList(Order.class, UserService.class);
+
+        assertEquals(describe(KryoClassRegistry.resolve(classes)), describe(KryoClassRegistry.resolve(reversed)));
+        // 服务接口展开为其中可达的类
+        List<String> registered = describe(KryoClassRegistry.resolve(classes));
+        assertTrue(registered.stream().anyMatch(r -> r.startsWith(User.class.getName() + "=")));
+        assertTrue(registered.stream().anyMatch(r -> r.startsWith(Address.class.getName() + "=")));
+    }
+
+    @Test
+    public void noRegistrationWithoutConfiguredClasses() {
+        assertTrue(KryoClassRegistry.resolve(List.of()).isEmpty());
+        assertTrue(KryoClassRegistry.parseClasses("").isEmpty());
+    }
+
+    @Test
+    public void registeredClassesWrittenAsIds() {
+        KryoSerializer plain = new KryoSerializer(List.of());
+        KryoSerializer registered = new KryoSerializer(KryoClassRegistry.parseClasses(
+                " " + UserService.class.getName() + " , "));
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData(new User("alice", new Address("hangzhou")));
+        rpcResponse.setDataType(User.class);
+
+        byte[] registeredBytes = registered.serialize(rpcResponse);
+
+        assertTrue(registeredBytes.length < plain.serialize(rpcResponse).length);
+        // 服务端和消费端各自创建的序列化器，配置相同即可互相解码
+        KryoSerializer peer = new KryoSerializer(List.of(UserService.class));
+        User user = (User) peer.deserialize(registeredBytes, RpcResponse.class).getData();
+        assertEquals("alice", user.name);
+        assertEquals("hangzhou", user.address.city);
+    }
+
+    @Test
+    public void unregisteredClassesStillWrittenByName() {
+        KryoSerializer registered = new KryoSerializer(List.of(UserService.class));
+        RpcRequest rpcRequest = new RpcRequest("com.qimoju.test.OrderService", "save", "1.0",
+                new Class<?>[]{Order.class}, new Object[]{new Order(7L)}, 0L);
+
+        RpcRequest decoded = new KryoSerializer(List.of(UserService.class))
+                .deserialize(registered.serialize(rpcRequest), RpcRequest.class);
+
+        assertEquals(Order.class, decoded.getParameterTypes()[0]);
+        assertEquals(7L, ((Order) decoded.getArgs()[0]).id);
+    }
+
+    @Test
+    public void unknownConfiguredClassFailsFast() {
+        assertThrows(RuntimeException.class, () -> KryoClassRegistry.parseClasses("com.qimoju.test.Missing"));
+    }
+
+    private static List<String> describe(List<KryoClassRegistry.Registration> registrations) {
+        List<String> result = new ArrayList<>();
+        for (KryoClassRegistry.Registration registration : registrations) {
+            result.add(registration.type.getName() + "=" + registration.id);
+        }
+        return result;
+    }
+}
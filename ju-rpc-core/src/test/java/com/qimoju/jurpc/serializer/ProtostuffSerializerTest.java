@@ -0,0 +1,149 @@
+package com.qimoju.jurpc.serializer;
+
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.runtime.RuntimeSchema;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Protostuff 序列化器：声明为 Class / Object / Object[] 的字段按实际类型写出，反序列化后类型不变
+ */
+public class ProtostuffSerializerTest {
+
+    /**
+     * 带有不能按 JDK 序列化的字段的异常
+     */
+    static class NonSerializableException extends RuntimeException {
+
+        private final Object resource = new Object();
+
+        NonSerializableException(String message) {
+            super(message);
+        }
+    }
+
+    private final ProtostuffSerializer serializer = new ProtostuffSerializer();
+
+    @Test
+    public void requestWithPrimitiveAndArrayParameterTypesRoundTrips() throws IOException {
+        List<String> tags = new ArrayList<>();
+        tags.add("a");
+        tags.add("b");
+        RpcRequest rpcRequest = new RpcRequest("com.qimoju.test.UserService", "update", "1.0",
+                new Class<?>[]{int.class, long.class, String.class, int[].class, Object[].class, List.class},
+                new Object[]{7, 8L, "alice", new int[]{1, 2, 3}, new Object[]{"x", 2L}, tags}, 500L);
+
+        RpcRequest decoded = serializer.deserialize(serializer.serialize(rpcRequest), RpcRequest.class);
+
+        assertEquals("update", decoded.getMethodName());
+        assertEquals(500L, decoded.getTimeout());
+        assertArrayEquals(rpcRequest.getParameterTypes(), decoded.getParameterTypes());
+        Object[] args = decoded.getArgs();
+        assertEquals(Integer.valueOf(7), args[0]);
+        assertEquals(Long.valueOf(8L), args[1]);
+        assertEquals("alice", args[2]);
+        assertArrayEquals(new int[]{1, 2, 3}, (int[]) args[3]);
+        assertArrayEquals(new Object[]{"x", 2L}, (Object[]) args[4]);
+        assertEquals(tags, args[5]);
+    }
+
+    @Test
+    public void responseWithExceptionRoundTrips() throws IOException {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setMessage("服务报错");
+        rpcResponse.setException(new IllegalArgumentException("参数错误", new IllegalStateException("原因")));
+
+        // 流式方法和字节数组方法都能还原异常
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(rpcResponse, out);
+        RpcResponse fromStream = serializer.deserialize(new ByteArrayInputStream(out.toByteArray()), RpcResponse.class);
+        RpcResponse fromBytes = serializer.deserialize(serializer.serialize(rpcResponse), RpcResponse.class);
+
+        for (RpcResponse decoded : new RpcResponse[]{fromStream, fromBytes}) {
+            assertEquals("服务报错", decoded.getMessage());
+            assertNull(decoded.getData());
+            assertTrue(decoded.getException() instanceof IllegalArgumentException);
+            assertEquals("参数错误", decoded.getException().getMessage());
+            assertTrue(decoded.getException().getCause() instanceof IllegalStateException);
+            assertTrue(decoded.getException().getStackTrace().length > 0);
+        }
+        // 不修改调用方的响应
+        assertNotNull(rpcResponse.getException());
+    }
+
+    @Test
+    public void nonSerializableExceptionKeepsClassNameAndMessage() throws IOException {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setException(new NonSerializableException("连接失败"));
+
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(rpcResponse), RpcResponse.class);
+
+        assertEquals(NonSerializableException.class.getName() + ": 连接失败", decoded.getException().getMessage());
+    }
+
+    @Test
+    public void suppressedExceptionsRoundTrip() throws IOException {
+        IllegalStateException exception = new IllegalStateException("关闭失败");
+        exception.addSuppressed(new IOException("连接已断开"));
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setException(exception);
+
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(rpcResponse), RpcResponse.class);
+
+        assertTrue(decoded.getException() instanceof IllegalStateException);
+        assertEquals(1, decoded.getException().getSuppressed().length);
+        assertTrue(decoded.getException().getSuppressed()[0] instanceof IOException);
+    }
+
+    @Test
+    public void exceptionWithDisallowedClassIsRejected() throws IOException {
+        // 异常数据中夹带了异常和堆栈以外的类
+        ProtostuffSerializer.ResponseMessage responseMessage = new ProtostuffSerializer.ResponseMessage();
+        responseMessage.response = new RpcResponse();
+        responseMessage.exception = jdkSerialize(new HashMap<>(Map.of("key", new Date())));
+        byte[] bytes = ProtostuffIOUtil.toByteArray(responseMessage,
+                RuntimeSchema.getSchema(ProtostuffSerializer.ResponseMessage.class), LinkedBuffer.allocate(512));
+
+        RpcResponse decoded = serializer.deserialize(bytes, RpcResponse.class);
+
+        assertEquals(RuntimeException.class, decoded.getException().getClass());
+        assertTrue(decoded.getException().getMessage().contains("不允许"));
+    }
+
+    @Test
+    public void responseWithDataRoundTrips() throws IOException {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData(new long[]{1L, 2L});
+        rpcResponse.setDataType(long[].class);
+        rpcResponse.setMessage("ok");
+
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(rpcResponse), RpcResponse.class);
+
+        assertEquals(long[].class, decoded.getDataType());
+        assertTrue(decoded.getData() instanceof long[]);
+        assertEquals(2L, ((long[]) decoded.getData())[1]);
+        assertNull(decoded.getException());
+    }
+
+    private static byte[] jdkSerialize(Object obj) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(out)) {
+            objectOutputStream.writeObject(obj);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.qimoju.jurpc.serializer;
+
+import com.qimoju.jurpc.RpcApplication;
+import com.qimoju.jurpc.config.RpcConfig;
+import com.qimoju.jurpc.model.RpcRequest;
+import com.qimoju.jurpc.model.RpcResponse;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * 序列化器的流式方法和字节数组方法结果一致、可以互相解码
+ */
+public class SerializerTest {
+
+    private static final String[] SERIALIZERS = {
+            SerializerKeys.JDK, SerializerKeys.JSON, SerializerKeys.KRYO, SerializerKeys.HESSIAN, SerializerKeys.PROTOSTUFF
+    };
+
+    @BeforeClass
+    public static void init() {
+        // 序列化器按全局配置创建，使用不连接外部服务的注册中心初始化
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getRegistryConfig().setRegistry("static");
+        RpcApplication.init(rpcConfig);
+    }
+
+    @Test
+    public void streamAndByteArrayMethodsAreInterchangeable() throws IOException {
+        for (String key : SERIALIZERS) {
+            Serializer serializer = SerializerFactory.getInstance(key);
+            RpcRequest rpcRequest = request();
+
+            byte[] bytes = serializer.serialize(rpcRequest);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            serializer.serialize(rpcRequest, out);
+
+            assertArrayEquals(key, bytes, out.toByteArray());
+            assertRequestEquals(key, rpcRequest, serializer.deserialize(new ByteArrayInputStream(bytes), RpcRequest.class));
+            assertRequestEquals(key, rpcRequest, serializer.deserialize(out.toByteArray(), RpcRequest.class));
+        }
+    }
+
+    @Test
+    public void reusedBuffersDoNotLeakBetweenCalls() throws IOException {
+        for (String key : SERIALIZERS) {
+            Serializer serializer = SerializerFactory.getInstance(key);
+            RpcResponse large = new RpcResponse();
+            large.setData("x".repeat(100_000));
+            large.setDataType(String.class);
+            RpcResponse small = new RpcResponse();
+            small.setData("y");
+            small.setDataType(String.class);
+
+            // 大消息之后的小消息不带上一次的残留数据
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            serializer.serialize(large, out);
+            byte[] first = serializer.serialize(small);
+            byte[] second = serializer.serialize(small);
+
+            assertArrayEquals(key, first, second);
+            assertEquals(key, "y", serializer.deserialize(new ByteArrayInputStream(second), RpcResponse.class).getData());
+            assertEquals(key, large.getData(),
+                    serializer.deserialize(new ByteArrayInputStream(out.toByteArray()), RpcResponse.class).getData());
+        }
+    }
+
+    @Test
+    public void defaultStreamMethodsUseByteArrayMethods() throws IOException {
+        // 只实现字节数组方法的自定义序列化器
+        Serializer delegate = SerializerFactory.getInstance(SerializerKeys.JDK);
+        Serializer serializer = new Serializer() {
+            @Override
+            public <T> byte[] serialize(T obj) throws IOException {
+                return delegate.serialize(obj);
+            }
+
+            @Override
+            public <T> T deserialize(byte[] data, Class<T> clazz) throws IOException {
+                return delegate.deserialize(data, clazz);
+            }
+        };
+        RpcRequest rpcRequest = request();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(rpcRequest, out);
+
+        assertArrayEquals(serializer.serialize(rpcRequest), out.toByteArray());
+        assertRequestEquals(SerializerKeys.JDK, rpcRequest,
+                serializer.deserialize(new ByteArrayInputStream(out.toByteArray()), RpcRequest.class));
+    }
+
+    private static RpcRequest request() {
+        return new RpcRequest("com.qimoju.test.UserService", "getUser", "1.0",
+                new Class<?>[]{String.class}, new Object[]{"hello"}, 1000L);
+    }
+
+    private static void assertRequestEquals(String serializer, RpcRequest expected, RpcRequest actual) {
+        assertEquals(serializer, expected.getServiceName(), actual.getServiceName());
+        assertEquals(serializer, expected.getMethodName(), actual.getMethodName());
+        assertEquals(serializer, expected.getServiceVersion(), actual.getServiceVersion());
+        assertTrue(serializer, Arrays.equals(expected.getParameterTypes(), actual.getParameterTypes()));
+        assertTrue(serializer, Arrays.deepEquals(expected.getArgs(), actual.getArgs()));
+        assertEquals(serializer, expected.getTimeout(), actual.getTimeout());
+    }
+}
@@ -0,0 +1,72 @@
+package com.qimoju.jurpc.server.executor;
+
+import com.qimoju.jurpc.config.RpcConfig;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 虚拟线程执行器：同时执行的请求数达到上限后直接拒绝，不排队等待许可
+ */
+public class VirtualThreadRequestExecutorTest {
+
+    @Test
+    public void rejectsWhenConcurrencyLimitReached() throws InterruptedException {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.setServerExecutorMaxConcurrency(1);
+        VirtualThreadRequestExecutor executor = new VirtualThreadRequestExecutor(rpcConfig);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            executor.execute(null, () -> {
+                running.countDown();
+                awaitQuietly(release);
+                done.countDown();
+            });
+            assertTrue(running.await(1, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(null, () -> fail("不应执行")));
+            assertEquals(0, executor.getQueueSize());
+
+            // 执行完成归还许可后可以继续接收请求
+            release.countDown();
+            assertTrue(done.await(1, TimeUnit.SECONDS));
+            CountDownLatch next = new CountDownLatch(1);
+            executeWhenPermitReturned(executor, next::countDown);
+            assertTrue(next.await(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 任务结束后许可在 finally 中归还，与 done 计数之间有先后，短暂重试
+     */
+    private static void executeWhenPermitReturned(RequestExecutor executor, Runnable task) throws InterruptedException {
+        for (int i = 0; ; i++) {
+            try {
+                executor.execute(null, task);
+                return;
+            } catch (RejectedExecutionException e) {
+                if (i == 100) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
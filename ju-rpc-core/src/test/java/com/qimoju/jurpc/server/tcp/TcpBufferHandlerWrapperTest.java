@@ -0,0 +1,156 @@
+package com.qimoju.jurpc.server.tcp;
+
+import com.qimoju.jurpc.protocol.ProtocolConstant;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 按协议拆分消息：数据块在任意位置断开、一个数据块包含多条消息、消息头非法
+ */
+public class TcpBufferHandlerWrapperTest {
+
+    private static final int MAX_BODY_LENGTH = 1024;
+
+    @Test
+    public void framesSplitAtEveryByteBoundary() {
+        byte[] first = frame(1, 5);
+        byte[] second = frame(2, 0);
+        byte[] third = frame(3, 300);
+        byte[] stream = concat(first, second, third);
+        for (int split = 1; split < stream.length; split++) {
+            List<byte[]> frames = new ArrayList<>();
+            TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(buffer -> frames.add(buffer.getBytes()),
+                    e -> fail("不应失败：" + e), MAX_BODY_LENGTH);
+
+            wrapper.handle(Buffer.buffer(slice(stream, 0, split)));
+            wrapper.handle(Buffer.buffer(slice(stream, split, stream.length)));
+
+            assertEquals("断开位置 " + split, 3, frames.size());
+            assertArrayEquals(first, frames.get(0));
+            assertArrayEquals(second, frames.get(1));
+            assertArrayEquals(third, frames.get(2));
+            wrapper.release();
+        }
+    }
+
+    @Test
+    public void frameDeliveredOneByteAtATime() {
+        byte[] frame = frame(1, 40);
+        List<byte[]> frames = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(buffer -> frames.add(buffer.getBytes()),
+                e -> fail("不应失败：" + e), MAX_BODY_LENGTH);
+
+        for (int i = 0; i < frame.length; i++) {
+            assertEquals(0, frames.size());
+            wrapper.handle(Buffer.buffer(slice(frame, i, i + 1)));
+        }
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(frame, frames.get(0));
+        wrapper.release();
+    }
+
+    @Test
+    public void severalFramesInOneChunk() {
+        byte[] first = frame(1, 10);
+        byte[] second = frame(2, 20);
+        byte[] third = frame(3, 30);
+        byte[] partial = frame(4, 8);
+        List<byte[]> frames = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(buffer -> frames.add(buffer.getBytes()),
+                e -> fail("不应失败：" + e), MAX_BODY_LENGTH);
+
+        // 三条完整消息加上第四条的一部分
+        wrapper.handle(Buffer.buffer(concat(first, second, third, slice(partial, 0, 20))));
+        assertEquals(3, frames.size());
+        assertArrayEquals(first, frames.get(0));
+        assertArrayEquals(second, frames.get(1));
+        assertArrayEquals(third, frames.get(2));
+
+        wrapper.handle(Buffer.buffer(slice(partial, 20, partial.length)));
+        assertEquals(4, frames.size());
+        assertArrayEquals(partial, frames.get(3));
+        wrapper.release();
+    }
+
+    @Test
+    public void negativeBodyLengthFailsAndDropsLaterData() {
+        byte[] valid = frame(1, 4);
+        byte[] invalid = frame(2, 4);
+        invalid[ProtocolConstant.BODY_LENGTH_OFFSET] = (byte) 0x80;
+        List<byte[]> frames = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(buffer -> frames.add(buffer.getBytes()), failures::add,
+                MAX_BODY_LENGTH);
+
+        wrapper.handle(Buffer.buffer(concat(valid, invalid)));
+        // 之后收到的数据不再处理
+        wrapper.handle(Buffer.buffer(frame(3, 4)));
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(valid, frames.get(0));
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof IllegalStateException);
+        // 连接关闭时再次释放不报错
+        wrapper.release();
+    }
+
+    @Test
+    public void bodyLengthOverLimitFailsWithoutWaitingForBody() {
+        byte[] valid = frame(1, MAX_BODY_LENGTH);
+        byte[] header = Buffer.buffer(frame(2, 0))
+                .setInt(ProtocolConstant.BODY_LENGTH_OFFSET, Integer.MAX_VALUE)
+                .getBytes();
+        List<byte[]> frames = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(buffer -> frames.add(buffer.getBytes()), failures::add,
+                MAX_BODY_LENGTH);
+
+        // 只收到消息头就失败，不等待（累积）消息体
+        wrapper.handle(Buffer.buffer(concat(valid, header)));
+        wrapper.handle(Buffer.buffer(new byte[64]));
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(valid, frames.get(0));
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof IllegalStateException);
+        wrapper.release();
+    }
+
+    /**
+     * 构造一条消息：消息头中带有请求 id 和消息体长度，消息体按请求 id 填充
+     */
+    private static byte[] frame(long requestId, int bodyLength) {
+        Buffer buffer = Buffer.buffer();
+        buffer.appendByte(ProtocolConstant.PROTOCOL_MAGIC);
+        buffer.appendByte(ProtocolConstant.PROTOCOL_VERSION);
+        buffer.appendByte((byte) 0);
+        buffer.appendByte((byte) 0);
+        buffer.appendByte((byte) 0);
+        buffer.appendLong(requestId);
+        buffer.appendInt(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            buffer.appendByte((byte) (requestId + i));
+        }
+        return buffer.getBytes();
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        byte[] result = new byte[to - from];
+        System.arraycopy(bytes, from, result, 0, result.length);
+        return result;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        Buffer buffer = Buffer.buffer();
+        for (byte[] part : parts) {
+            buffer.appendBytes(part);
+        }
+        return buffer.getBytes();
+    }
+}
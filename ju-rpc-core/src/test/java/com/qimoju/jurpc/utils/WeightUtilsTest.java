@@ -0,0 +1,61 @@
+package com.qimoju.jurpc.utils;
+
+import com.qimoju.jurpc.ServiceMetaInfoFixtures;
+import com.qimoju.jurpc.constant.RpcConstant;
+import com.qimoju.jurpc.model.ServiceMetaInfo;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 节点预热期间的有效权重
+ */
+public class WeightUtilsTest {
+
+    private static final long REGISTER_TIME = 1_000_000L;
+
+    private static final long WARMUP = 60_000L;
+
+    @Test
+    public void weightRampsLinearlyDuringWarmup() {
+        ServiceMetaInfo node = node(100, REGISTER_TIME, WARMUP);
+
+        assertEquals(1, WeightUtils.getEffectiveWeight(node, REGISTER_TIME));
+        assertEquals(25, WeightUtils.getEffectiveWeight(node, REGISTER_TIME + WARMUP / 4));
+        assertEquals(50, WeightUtils.getEffectiveWeight(node, REGISTER_TIME + WARMUP / 2));
+        assertEquals(100, WeightUtils.getEffectiveWeight(node, REGISTER_TIME + WARMUP));
+        assertEquals(100, WeightUtils.getEffectiveWeight(node, REGISTER_TIME + 2 * WARMUP));
+    }
+
+    @Test
+    public void warmupWeightIsAtLeastOne() {
+        ServiceMetaInfo node = node(10, REGISTER_TIME, WARMUP);
+
+        assertEquals(1, WeightUtils.getEffectiveWeight(node, REGISTER_TIME + 1));
+        // 消费端时钟比服务端慢
+        assertEquals(1, WeightUtils.getEffectiveWeight(node, REGISTER_TIME - 5_000));
+    }
+
+    @Test
+    public void noWarmupWithoutRegisterTimeOrWarmup() {
+        assertEquals(100, WeightUtils.getEffectiveWeight(node(100, null, WARMUP), REGISTER_TIME));
+        assertEquals(100, WeightUtils.getEffectiveWeight(node(100, REGISTER_TIME, 0L), REGISTER_TIME));
+        assertEquals(0, WeightUtils.getWarmupEndMillis(node(100, REGISTER_TIME, null)));
+        assertEquals(REGISTER_TIME + WARMUP, WeightUtils.getWarmupEndMillis(node(100, REGISTER_TIME, WARMUP)));
+    }
+
+    @Test
+    public void zeroWeightStaysZeroAndMissingWeightUsesDefault() {
+        assertEquals(0, WeightUtils.getEffectiveWeight(node(0, REGISTER_TIME, WARMUP), REGISTER_TIME + 1));
+        assertEquals(RpcConstant.DEFAULT_WEIGHT, WeightUtils.getWeight(node(null, null, null)));
+        assertEquals(0, WeightUtils.getWeight(node(-5, null, null)));
+    }
+
+    private static ServiceMetaInfo node(Integer weight, Long registerTime, Long warmup) {
+        ServiceMetaInfo serviceMetaInfo = ServiceMetaInfoFixtures.node("com.qimoju.test.WarmupService", 8080);
+        serviceMetaInfo.setWeight(weight);
+        serviceMetaInfo.setRegisterTime(registerTime);
+        serviceMetaInfo.setWarmup(warmup);
+        return serviceMetaInfo;
+    }
+}
@@ -0,0 +1,26 @@
+package com.qimoju.jurpc.springboot.starter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 服务方法配置（在 {@link RpcReference#methods()} 中为单个方法指定配置）
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface RpcMethod {
+
+    /**
+     * 方法名
+     */
+    String name();
+
+    /**
+     * 调用超时时间（毫秒）
+     */
+    long timeout();
+
+}
@@ -48,5 +48,15 @@ public @interface RpcReference {
      */
     boolean mock() default false;
 
+    /**
+     * 调用超时时间（毫秒），小于 0 时使用全局配置
+     */
+    long timeout() default -1;
+
+    /**
+     * 单个方法的配置（如超时时间），优先于服务的配置
+     */
+    RpcMethod[] methods() default {};
+
 }
 
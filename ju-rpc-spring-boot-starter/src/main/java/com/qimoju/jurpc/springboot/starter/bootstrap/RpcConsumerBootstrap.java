@@ -1,6 +1,8 @@
 package com.qimoju.jurpc.springboot.starter.bootstrap;
 
+import com.qimoju.jurpc.config.ReferenceConfig;
 import com.qimoju.jurpc.proxy.ServiceProxyFactory;
+import com.qimoju.jurpc.springboot.starter.annotation.RpcMethod;
 import com.qimoju.jurpc.springboot.starter.annotation.RpcReference;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
@@ -37,7 +39,7 @@ public class RpcConsumerBootstrap implements BeanPostProcessor {
                     interfaceClass = field.getType();
                 }
                 field.setAccessible(true);
-                Object proxyObject = ServiceProxyFactory.getProxy(interfaceClass);
+                Object proxyObject = ServiceProxyFactory.getProxy(interfaceClass, buildReferenceConfig(rpcReference));
                 try {
                     field.set(bean, proxyObject);
                     field.setAccessible(false);
@@ -49,4 +51,21 @@ public class RpcConsumerBootstrap implements BeanPostProcessor {
         return BeanPostProcessor.super.postProcessAfterInitialization(bean, beanName);
     }
 
+    /**
+     * 根据注解构造服务引用配置
+     *
+     * @param rpcReference
+     * @return
+     */
+    private static ReferenceConfig buildReferenceConfig(RpcReference rpcReference) {
+        ReferenceConfig referenceConfig = new ReferenceConfig();
+        if (rpcReference.timeout() >= 0) {
+            referenceConfig.setTimeout(rpcReference.timeout());
+        }
+        for (RpcMethod rpcMethod : rpcReference.methods()) {
+            referenceConfig.getMethodTimeouts().put(rpcMethod.name(), rpcMethod.timeout());
+        }
+        return referenceConfig;
+    }
+
 }
@@ -42,8 +42,8 @@ public class RpcProviderBootstrap implements BeanPostProcessor {
             String serviceName = interfaceClass.getName();
             String serviceVersion = rpcService.serviceVersion();
             // 2. 注册服务
-            // 本地注册
-            LocalRegistry.register(serviceName, beanClass);
+            // 本地注册，使用 Spring 管理的 Bean 实例
+            LocalRegistry.registerInstance(serviceName, bean);
 
             // 全局配置
             final RpcConfig rpcConfig = RpcApplication.getRpcConfig();
@@ -55,6 +55,10 @@ public class RpcProviderBootstrap implements BeanPostProcessor {
             serviceMetaInfo.setServiceVersion(serviceVersion);
             serviceMetaInfo.setServiceHost(rpcConfig.getServerHost());
             serviceMetaInfo.setServicePort(rpcConfig.getServerPort());
+            serviceMetaInfo.setZone(rpcConfig.getZone());
+            serviceMetaInfo.setWeight(rpcConfig.getWeight());
+            serviceMetaInfo.setWarmup(rpcConfig.getWarmup());
+            serviceMetaInfo.setRegisterTime(System.currentTimeMillis());
             try {
                 registry.register(serviceMetaInfo);
             } catch (Exception e) {